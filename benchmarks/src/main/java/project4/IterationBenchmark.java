@@ -0,0 +1,146 @@
+package project4;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures full and early-exit traversals with the three {@link BST}
+ * iterators, positional traversals with {@link BST#get(int)} and with a
+ * cursor, and sequential and parallel aggregations over its streams.
+ * 
+ * @author Ishan Pranav
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IterationBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private BST<Integer> tree;
+
+    /** Builds the tree in random order. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new BST<Integer>();
+
+        for (Integer element : TreeBenchmark.Elements.create(size, "random", 42)) {
+            tree.add(element);
+        }
+    }
+
+    /**
+     * Traverses the whole tree in order.
+     * 
+     * @param blackhole the sink for the elements
+     */
+    @Benchmark
+    public void inorder(Blackhole blackhole) {
+        consume(tree.iterator(), blackhole);
+    }
+
+    /**
+     * Traverses the whole tree in preorder.
+     * 
+     * @param blackhole the sink for the elements
+     */
+    @Benchmark
+    public void preorder(Blackhole blackhole) {
+        consume(tree.preorderIterator(), blackhole);
+    }
+
+    /**
+     * Traverses the whole tree in postorder.
+     * 
+     * @param blackhole the sink for the elements
+     */
+    @Benchmark
+    public void postorder(Blackhole blackhole) {
+        consume(tree.postorderIterator(), blackhole);
+    }
+
+    /**
+     * Retrieves only the first element of an in-order traversal.
+     * 
+     * @return the first element
+     */
+    @Benchmark
+    public Integer first() {
+        return tree.iterator().next();
+    }
+
+    /**
+     * Traverses the whole tree by position, searching from the root each time.
+     * 
+     * @param blackhole the sink for the elements
+     */
+    @Benchmark
+    public void indexed(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(tree.get(i));
+        }
+    }
+
+    /**
+     * Traverses the whole tree by position with a cursor.
+     * 
+     * @param blackhole the sink for the elements
+     */
+    @Benchmark
+    public void cursor(Blackhole blackhole) {
+        final BST<Integer>.BSTCursor cursor = tree.cursor();
+
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(cursor.get(i));
+        }
+    }
+
+    /**
+     * Sums every element with a sequential stream.
+     * 
+     * @return the sum
+     */
+    @Benchmark
+    public long sum() {
+        return tree.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    /**
+     * Sums every element with a parallel stream.
+     * 
+     * @return the sum
+     */
+    @Benchmark
+    public long parallelSum() {
+        return tree.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+
+    /**
+     * Consumes every element of a traversal.
+     * 
+     * @param iterator  the traversal
+     * @param blackhole the sink for the elements
+     */
+    private static void consume(Iterator<Integer> iterator, Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
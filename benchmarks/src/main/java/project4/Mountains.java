@@ -0,0 +1,255 @@
+package project4;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Provides factory methods that generate synthetic mountains for benchmarks.
+ * 
+ * @author Ishan Pranav
+ */
+public final class Mountains {
+    private static final String[] SUPPLIES = { "food", "food", "raft", "axe" };
+    private static final String[] OBSTACLES = { "river", "fallen tree" };
+
+    /** Initializes a new instance of the {@link Mountains} class. */
+    private Mountains() {
+    }
+
+    /**
+     * Creates a mountain of the given shape.
+     * 
+     * @param shape the shape of the mountain: {@code balanced}, {@code random},
+     *              {@code skewed} or {@code tall}
+     * @param size  the number of rest stops
+     * @param seed  the seed for the random order, supplies and obstacles
+     * @return the mountain
+     * @throws IllegalArgumentException if the shape is not recognized
+     */
+    public static BSTMountain create(String shape, int size, long seed) {
+        switch (shape) {
+        case "balanced":
+            return balanced(size, seed);
+
+        case "random":
+            return random(size, seed);
+
+        case "skewed":
+            return skewed(size, seed);
+
+        case "tall":
+            return tall(size, seed);
+
+        default:
+            throw new IllegalArgumentException("The shape is not recognized. Argument name: shape.");
+        }
+    }
+
+    /**
+     * Creates a perfectly balanced mountain, inserting the median of every range
+     * before either of its halves. Every rest stop provides enough food for the
+     * hiker to keep moving, so most paths reaching the base are viable.
+     * 
+     * @param size the number of rest stops
+     * @param seed the seed for the random supplies and obstacles
+     * @return the mountain
+     */
+    public static BSTMountain balanced(int size, long seed) {
+        final RestStop[] restStops = restStops(size, seed);
+        final BSTMountain result = new BSTMountain();
+        final int[] lefts = new int[(2 * size) + 1];
+        final int[] rights = new int[(2 * size) + 1];
+
+        int head = 0;
+        int tail = 1;
+
+        rights[0] = size - 1;
+
+        // Insert ranges in breadth-first order so that every level is completed
+        // before the next one begins
+
+        while (head < tail) {
+            final int left = lefts[head];
+            final int right = rights[head];
+            final int center = (left + right) / 2;
+
+            head++;
+
+            if (left > right) {
+                continue;
+            }
+
+            result.add(restStops[center]);
+
+            lefts[tail] = left;
+            rights[tail] = center - 1;
+            tail++;
+            lefts[tail] = center + 1;
+            rights[tail] = right;
+            tail++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a mountain whose rest stops are inserted in random order.
+     * 
+     * @param size the number of rest stops
+     * @param seed the seed for the random order, supplies and obstacles
+     * @return the mountain
+     */
+    public static BSTMountain random(int size, long seed) {
+        final RestStop[] restStops = restStops(size, seed);
+        final Random random = new Random(seed);
+        final BSTMountain result = new BSTMountain();
+
+        shuffle(restStops, random);
+
+        for (RestStop restStop : restStops) {
+            result.add(restStop);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a skewed mountain: the lower half of the rest stops is inserted in
+     * random order, and the upper half in ascending order, so that the right side
+     * of the mountain degenerates into a long path.
+     * 
+     * @param size the number of rest stops
+     * @param seed the seed for the random order, supplies and obstacles
+     * @return the mountain
+     */
+    public static BSTMountain skewed(int size, long seed) {
+        final RestStop[] restStops = restStops(size, seed);
+        final RestStop[] lower = new RestStop[size / 2];
+        final BSTMountain result = new BSTMountain();
+
+        System.arraycopy(restStops, 0, lower, 0, lower.length);
+        shuffle(lower, new Random(seed));
+
+        for (RestStop restStop : lower) {
+            result.add(restStop);
+        }
+
+        for (int i = lower.length; i < size; i++) {
+            result.add(restStops[i]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a degenerate mountain whose rest stops are inserted in ascending
+     * order, forming a single path whose height equals its size.
+     * 
+     * @param size the number of rest stops
+     * @param seed the seed for the random supplies and obstacles
+     * @return the mountain
+     */
+    public static BSTMountain tall(int size, long seed) {
+        final BSTMountain result = new BSTMountain();
+
+        for (RestStop restStop : restStops(size, seed)) {
+            result.add(restStop);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates an array of rest stops in ascending order of their labels.
+     * 
+     * @param size the number of rest stops
+     * @param seed the seed for the random supplies and obstacles
+     * @return the rest stops
+     */
+    public static RestStop[] restStops(int size, long seed) {
+        final Random random = new Random(seed);
+        final RestStop[] results = new RestStop[size];
+
+        for (int i = 0; i < size; i++) {
+            final int foodRations = 1 + random.nextInt(3);
+            final int rafts = random.nextInt(16) == 0 ? -1 : 1;
+            final int axes = random.nextInt(16) == 0 ? -1 : 1;
+
+            results[i] = new RestStop(label(i), foodRations, rafts, axes);
+        }
+
+        return results;
+    }
+
+    /**
+     * Creates a fixed-width label that sorts in the same order as its index.
+     * 
+     * @param index the index of the rest stop
+     * @return the label
+     */
+    public static String label(int index) {
+        final String digits = Integer.toString(index);
+        final StringBuilder result = new StringBuilder(10);
+
+        for (int i = digits.length(); i < 10; i++) {
+            result.append('0');
+        }
+
+        return result.append(digits).toString();
+    }
+
+    /**
+     * Shuffles an array in place using the Fisher-Yates algorithm.
+     * 
+     * @param <E>    the type of elements in the array
+     * @param array  the array to shuffle
+     * @param random the source of randomness
+     */
+    public static <E> void shuffle(E[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final E item = array[i];
+
+            array[i] = array[j];
+            array[j] = item;
+        }
+    }
+
+    /**
+     * Writes a random input file for {@link MountainClimb}, one rest stop per
+     * line, in random order.
+     * 
+     * @param path  the path to the file
+     * @param lines the number of lines
+     * @param seed  the seed for the random labels, supplies and obstacles
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(Path path, int lines, long seed) throws IOException {
+        final Random random = new Random(seed);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int line = 0; line < lines; line++) {
+                final int supplies = random.nextInt(4);
+                final int obstacles = random.nextInt(3) == 0 ? 1 : 0;
+
+                writer.write(label(random.nextInt(Integer.MAX_VALUE)));
+
+                for (int i = 0; i < supplies; i++) {
+                    writer.write(' ');
+                    writer.write(SUPPLIES[random.nextInt(SUPPLIES.length)]);
+                }
+
+                for (int i = 0; i < obstacles; i++) {
+                    writer.write(' ');
+                    writer.write(OBSTACLES[random.nextInt(OBSTACLES.length)]);
+                }
+
+                writer.write('\n');
+            }
+        }
+    }
+}
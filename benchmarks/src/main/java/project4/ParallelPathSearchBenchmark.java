@@ -0,0 +1,68 @@
+package project4;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the throughput of {@link BSTMountain#findPaths(ForkJoinPool, int)}
+ * scales with the number of worker threads. Compare the results against
+ * {@link PathSearchBenchmark#findPaths()} for the sequential baseline.
+ * 
+ * @author Ishan Pranav
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelPathSearchBenchmark {
+    @Param({ "1048575" })
+    public int size;
+
+    @Param({ "4096" })
+    public int threshold;
+
+    @Param({ "1", "2", "4", "8", "16", "32" })
+    public int parallelism;
+
+    private BSTMountain mountain;
+    private ForkJoinPool pool;
+
+    /** Builds the mountain and starts the pool. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        mountain = Mountains.balanced(size, 42);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /** Stops the pool. */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Discovers and records every viable path in parallel.
+     * 
+     * @return the paths
+     */
+    @Benchmark
+    public ArrayMatrix<RestStop> findPaths() {
+        return mountain.findPaths(pool, threshold);
+    }
+}
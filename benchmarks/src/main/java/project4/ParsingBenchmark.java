@@ -0,0 +1,115 @@
+package project4;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of parsing {@link MountainClimb} input files with the
+ * scanner-based parser and the byte-level {@link MountainParser}. Both include
+ * the construction of the mountain. The {@code bytes} counter reports the
+ * throughput in bytes per second.
+ * 
+ * @author Ishan Pranav
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsingBenchmark {
+
+    /**
+     * Counts the bytes parsed by each thread.
+     * 
+     * @author Ishan Pranav
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long bytes;
+    }
+
+    @Param({ "10000", "1000000" })
+    public int lines;
+
+    private Path path;
+    private long size;
+
+    /**
+     * Writes the input file.
+     * 
+     * @throws IOException if an I/O error occurs
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = Files.createTempFile("mountain", ".txt");
+
+        Mountains.write(path, lines, 42);
+
+        size = Files.size(path);
+    }
+
+    /**
+     * Deletes the input file.
+     * 
+     * @throws IOException if an I/O error occurs
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(path);
+    }
+
+    /**
+     * Parses the input file with {@link java.util.Scanner}.
+     * 
+     * @param counters the byte counters
+     * @return the mountain
+     * @throws IOException if an I/O error occurs
+     */
+    @Benchmark
+    public BSTMountain scanner(Counters counters) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+            counters.bytes += size;
+
+            return MountainClimb.parse(inputStream);
+        }
+    }
+
+    /**
+     * Parses the input file with {@link MountainParser}.
+     * 
+     * @param counters the byte counters
+     * @return the mountain
+     * @throws IOException if an I/O error occurs
+     */
+    @Benchmark
+    public BSTMountain bytes(Counters counters) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            counters.bytes += size;
+
+            return MountainParser.parse(channel);
+        }
+    }
+}
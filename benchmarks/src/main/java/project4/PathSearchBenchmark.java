@@ -0,0 +1,64 @@
+package project4;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sequential path searches with {@link BSTMountain#findPaths()} and
+ * {@link BSTMountain#countPaths()} on balanced, skewed and tall mountains.
+ * 
+ * @author Ishan Pranav
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathSearchBenchmark {
+    @Param({ "1023", "16383", "131071" })
+    public int size;
+
+    @Param({ "balanced", "skewed", "tall" })
+    public String shape;
+
+    private BSTMountain mountain;
+
+    /** Builds the mountain. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        mountain = Mountains.create(shape, size, 42);
+    }
+
+    /**
+     * Discovers and records every viable path.
+     * 
+     * @return the paths
+     */
+    @Benchmark
+    public ArrayMatrix<RestStop> findPaths() {
+        return mountain.findPaths();
+    }
+
+    /**
+     * Counts every viable path.
+     * 
+     * @return the number of paths
+     */
+    @Benchmark
+    public int countPaths() {
+        return mountain.countPaths();
+    }
+}
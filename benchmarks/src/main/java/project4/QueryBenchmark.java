@@ -0,0 +1,221 @@
+package project4;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of single lookups through {@link BST#get(int)},
+ * {@link BST#contains(Object)}, {@link BST#floor(Comparable)},
+ * {@link BST#ceiling(Comparable)}, {@link BST#rank(Comparable)} and
+ * {@link BST#countRange(Comparable, Comparable)}, and of the same lookups in
+ * batches through {@link BST#getAll(int[], Comparable[])},
+ * {@link BST#containsAll(Comparable[], boolean[])},
+ * {@link BST#floorAll(Comparable[], Comparable[])} and
+ * {@link BST#ceilingAll(Comparable[], Comparable[])}, on trees built in random
+ * and ascending (degenerate) order, with and without AVL balancing. The probes
+ * are sorted, so that single and batched lookups see the same sequence.
+ * 
+ * @author Ishan Pranav
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    @Param({ "random", "sorted" })
+    public String order;
+
+    @Param({ "false", "true" })
+    public boolean balanced;
+
+    private BST<Integer> tree;
+    private int[] indices;
+    private Integer[] keys;
+    private boolean[] found;
+    private Integer[] results;
+
+    /** Builds the tree and chooses random probes. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+
+        if (balanced) {
+            tree = new AVLTree<Integer>();
+        } else {
+            tree = new BST<Integer>();
+        }
+
+        for (Integer element : TreeBenchmark.Elements.create(size, order, 42)) {
+            tree.add(element);
+        }
+
+        indices = new int[PROBES];
+        keys = new Integer[PROBES];
+
+        // Elements are even, so odd keys exercise the inexact matches
+
+        for (int i = 0; i < PROBES; i++) {
+            indices[i] = random.nextInt(size);
+            keys[i] = random.nextInt(size * 2);
+        }
+
+        Arrays.sort(indices);
+        Arrays.sort(keys);
+
+        found = new boolean[PROBES];
+        results = new Integer[PROBES];
+    }
+
+    /**
+     * Retrieves elements by their position.
+     * 
+     * @param blackhole the sink for the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void get(Blackhole blackhole) {
+        for (int index : indices) {
+            blackhole.consume(tree.get(index));
+        }
+    }
+
+    /**
+     * Retrieves elements by their position in one batch.
+     * 
+     * @return the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public Integer[] getAll() {
+        tree.getAll(indices, results);
+
+        return results;
+    }
+
+    /**
+     * Determines whether the tree contains the keys.
+     * 
+     * @param blackhole the sink for the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void contains(Blackhole blackhole) {
+        for (Integer key : keys) {
+            blackhole.consume(tree.contains(key));
+        }
+    }
+
+    /**
+     * Determines whether the tree contains the keys in one batch.
+     * 
+     * @return the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public boolean[] containsAll() {
+        tree.containsAll(keys, found);
+
+        return found;
+    }
+
+    /**
+     * Finds the greatest elements less than or equal to the keys.
+     * 
+     * @param blackhole the sink for the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void floor(Blackhole blackhole) {
+        for (Integer key : keys) {
+            blackhole.consume(tree.floor(key));
+        }
+    }
+
+    /**
+     * Finds the greatest elements less than or equal to the keys in one batch.
+     * 
+     * @return the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public Integer[] floorAll() {
+        tree.floorAll(keys, results);
+
+        return results;
+    }
+
+    /**
+     * Finds the least elements greater than or equal to the keys.
+     * 
+     * @param blackhole the sink for the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void ceiling(Blackhole blackhole) {
+        for (Integer key : keys) {
+            blackhole.consume(tree.ceiling(key));
+        }
+    }
+
+    /**
+     * Finds the least elements greater than or equal to the keys in one batch.
+     * 
+     * @return the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public Integer[] ceilingAll() {
+        tree.ceilingAll(keys, results);
+
+        return results;
+    }
+
+    /**
+     * Counts the elements less than the keys.
+     * 
+     * @param blackhole the sink for the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void rank(Blackhole blackhole) {
+        for (Integer key : keys) {
+            blackhole.consume(tree.rank(key));
+        }
+    }
+
+    /**
+     * Counts the elements within ranges beginning at the keys.
+     * 
+     * @param blackhole the sink for the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void countRange(Blackhole blackhole) {
+        for (Integer key : keys) {
+            blackhole.consume(tree.countRange(key, key + size));
+        }
+    }
+}
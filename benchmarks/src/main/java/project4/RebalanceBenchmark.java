@@ -0,0 +1,129 @@
+package project4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the break-even point of {@link BST#rebalance()} on a tree built in
+ * ascending (degenerate) order: a batch of lookups is performed either directly
+ * or after rebalancing the tree. Rebalancing pays for itself once the batch is
+ * large enough that the saved O(N) lookups outweigh its O(N) cost.
+ * 
+ * Direct lookups share one degenerate tree for the whole trial, since they
+ * never change it. Rebalancing needs a fresh degenerate tree every time, so
+ * each invocation rebalances a batch of trees built beforehand, which keeps
+ * the measured work far longer than the per-invocation overhead of the
+ * harness.
+ * 
+ * @author Ishan Pranav
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RebalanceBenchmark {
+    private static final int TREES = 32;
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    @Param({ "1", "4", "16", "64" })
+    public int lookups;
+
+    private Integer[] elements;
+    private Integer[] keys;
+    private BST<Integer> tree;
+
+    /**
+     * Provides the degenerate trees rebalanced by a single invocation of
+     * {@link RebalanceBenchmark#rebalanceAndLookup}.
+     * 
+     * @author Ishan Pranav
+     */
+    @State(Scope.Thread)
+    public static class Trees {
+        private final List<BST<Integer>> trees = new ArrayList<BST<Integer>>(TREES);
+
+        /**
+         * Builds a batch of degenerate trees.
+         * 
+         * @param benchmark the benchmark providing the elements
+         */
+        @Setup(Level.Invocation)
+        public void setUp(RebalanceBenchmark benchmark) {
+            trees.clear();
+
+            for (int i = 0; i < TREES; i++) {
+                final BST<Integer> tree = new BST<Integer>();
+
+                tree.addAll(benchmark.elements);
+                trees.add(tree);
+            }
+        }
+    }
+
+    /** Creates the elements and the degenerate tree, and chooses probes. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+
+        elements = TreeBenchmark.Elements.create(size, "sorted", 42);
+        keys = new Integer[lookups];
+        tree = new BST<Integer>();
+
+        tree.addAll(elements);
+
+        for (int i = 0; i < lookups; i++) {
+            keys[i] = random.nextInt(size * 2);
+        }
+    }
+
+    /**
+     * Performs the lookups on the degenerate tree.
+     * 
+     * @param blackhole the sink for the results
+     */
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        for (Integer key : keys) {
+            blackhole.consume(tree.contains(key));
+        }
+    }
+
+    /**
+     * Rebalances each tree of a batch and then performs the lookups on it.
+     * 
+     * @param trees     the degenerate trees
+     * @param blackhole the sink for the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(TREES)
+    public void rebalanceAndLookup(Trees trees, Blackhole blackhole) {
+        for (BST<Integer> tree : trees.trees) {
+            tree.rebalance();
+
+            for (Integer key : keys) {
+                blackhole.consume(tree.contains(key));
+            }
+        }
+    }
+}
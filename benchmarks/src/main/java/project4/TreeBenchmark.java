@@ -0,0 +1,163 @@
+package project4;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of building and dismantling a {@link BST} through
+ * {@link BST#add(Comparable)}, {@link BST#remove(Object)} and the
+ * {@link BST#BST(Comparable[])} bulk constructor. Elements are inserted either
+ * in random order or in ascending (degenerate) order.
+ * 
+ * @author Ishan Pranav
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    @Param({ "random", "sorted" })
+    public String order;
+
+    private Integer[] elements;
+    private BST<Integer> tree;
+
+    /** Creates the elements in the order in which they are inserted. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        elements = Elements.create(size, order, 42);
+    }
+
+    /** Fills the tree dismantled by {@link #remove()}. */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        tree = new BST<Integer>();
+
+        for (Integer element : elements) {
+            tree.add(element);
+        }
+    }
+
+    /**
+     * Inserts every element into an empty tree.
+     * 
+     * @return the tree
+     */
+    @Benchmark
+    public BST<Integer> add() {
+        final BST<Integer> result = new BST<Integer>();
+
+        for (Integer element : elements) {
+            result.add(element);
+        }
+
+        return result;
+    }
+
+    /**
+     * Inserts every element into an empty tree as a single bulk operation.
+     * 
+     * @return the tree
+     */
+    @Benchmark
+    public BST<Integer> addAll() {
+        final BST<Integer> result = new BST<Integer>();
+
+        result.addAll(elements);
+
+        return result;
+    }
+
+    /**
+     * Inserts every element into a tree that already contains the first element,
+     * so that the bulk operation inserts the elements one by one.
+     * 
+     * @return the tree
+     */
+    @Benchmark
+    public BST<Integer> addAllIncremental() {
+        final BST<Integer> result = new BST<Integer>();
+
+        result.add(elements[0]);
+        result.addAll(elements);
+
+        return result;
+    }
+
+    /**
+     * Removes every element from a full tree, in insertion order.
+     * 
+     * @return the empty tree
+     */
+    @Benchmark
+    public BST<Integer> remove() {
+        for (Integer element : elements) {
+            tree.remove(element);
+        }
+
+        return tree;
+    }
+
+    /**
+     * Builds a balanced tree from every element using the bulk constructor.
+     * 
+     * @return the tree
+     */
+    @Benchmark
+    public BST<Integer> construct() {
+        return new BST<Integer>(elements);
+    }
+
+    /**
+     * Provides factory methods that generate benchmark elements.
+     * 
+     * @author Ishan Pranav
+     */
+    static final class Elements {
+
+        /** Initializes a new instance of the {@link Elements} class. */
+        private Elements() {
+        }
+
+        /**
+         * Creates distinct elements in the given order.
+         * 
+         * @param size  the number of elements
+         * @param order the order of the elements: {@code random} or
+         *              {@code sorted}
+         * @param seed  the seed for the random order
+         * @return the elements
+         */
+        static Integer[] create(int size, String order, long seed) {
+            final Integer[] results = new Integer[size];
+
+            for (int i = 0; i < size; i++) {
+                results[i] = i * 2;
+            }
+
+            if (order.equals("random")) {
+                Mountains.shuffle(results, new Random(seed));
+            }
+
+            return results;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package project4;
+
+/**
+ * An implementation of a self-balancing (AVL) binary search tree. The elements
+ * are ordered using their natural ordering.
+ * 
+ * After each insertion and removal, the nodes along the modified path are
+ * rotated so that the heights of the left and right sides of every node differ
+ * by at most one. The height of the tree therefore never exceeds about 1.44
+ * logN, and this implementation provides guaranteed O(logN) time cost for the
+ * basic operations ({@code add}, {@code remove} and {@code contains}) and for
+ * the navigation operations ({@code floor}, {@code ceiling}, {@code lower},
+ * {@code higher} and {@code get}). Unlike a mountain, the shape of the tree
+ * does not reflect the order in which elements are added.
+ * 
+ * @param <E> the type of elements maintained by this set
+ * @author Ishan Pranav
+ */
+public class AVLTree<E extends Comparable<E>> extends BST<E> {
+
+    /**
+     * Constructs a new, empty tree, sorted according to the natural ordering of its
+     * elements.
+     */
+    public AVLTree() {
+    }
+
+    /**
+     * Constructs a new tree containing the elements in the specified collection,
+     * sorted according to the natural ordering of its elements.
+     * 
+     * @param collection collection whose elements will comprise the new tree
+     * @throws NullPointerException if the specified collection is null or contains
+     *                              null elements
+     */
+    public AVLTree(E[] collection) {
+        super(collection);
+    }
+
+    /**
+     * Returns an immutable snapshot of this persistent tree.
+     * 
+     * @return an immutable snapshot of this tree
+     * @throws IllegalStateException if this tree is not persistent
+     */
+    @Override
+    public AVLTree<E> snapshot() {
+        return (AVLTree<E>) super.snapshot();
+    }
+
+    /**
+     * Determines whether this tree balances itself.
+     * 
+     * @return {@code true}
+     */
+    @Override
+    protected boolean isSelfBalancing() {
+        return true;
+    }
+}
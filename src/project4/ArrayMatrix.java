@@ -10,9 +10,12 @@ package project4;
  * @author Ishan Pranav
  */
 public class ArrayMatrix<E> {
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
     private final int columns;
 
     private int rows;
+    private int growths;
     private E[] buffer;
 
     /**
@@ -50,6 +53,16 @@ public class ArrayMatrix<E> {
         return columns;
     }
 
+    /**
+     * Gets the number of times the internal buffer has been reallocated to
+     * accommodate additional rows.
+     * 
+     * @return the number of growth events
+     */
+    public int getGrowths() {
+        return growths;
+    }
+
     /**
      * Gets the element based on its row and column.
      * 
@@ -93,26 +106,115 @@ public class ArrayMatrix<E> {
 
         final int count = rows * columns;
 
-        int capacity = buffer.length;
+        grow(count + columns);
+
+        System.arraycopy(row, 0, buffer, count, columns);
+
+        rows++;
+    }
+
+    /**
+     * Adds all the rows of the specified matrix to the end of this matrix,
+     * preserving their order.
+     * 
+     * @param other the matrix whose rows to add
+     * @throws NullPointerException     if the specified matrix is null
+     * @throws IllegalArgumentException if the number of columns in the specified
+     *                                  matrix is not equal to the number of columns
+     *                                  in this matrix
+     */
+    public void addAll(ArrayMatrix<E> other) {
+        if (other == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: other.");
+        }
+
+        if (other.columns != columns) {
+            throw new IllegalArgumentException("The number of columns in both matrices must be equal.");
+        }
 
-        if (count == capacity) {
-            if (capacity == 0) {
-                capacity = count + columns;
-            } else {
-                capacity *= 2;
-            }
+        final int count = rows * columns;
+        final int otherCount = other.rows * columns;
 
-            final Object[] newMatrix = new Object[capacity];
+        if (otherCount > 0) {
+            grow(count + otherCount);
+            System.arraycopy(other.buffer, 0, buffer, count, otherCount);
+        }
 
-            if (count > 0) {
-                System.arraycopy(buffer, 0, newMatrix, 0, count);
-            }
+        rows += other.rows;
+    }
 
-            buffer = (E[]) newMatrix;
+    /**
+     * Increases the capacity of the matrix, if necessary, so that it can hold at
+     * least the given number of rows without reallocating its internal buffer.
+     * 
+     * @param rows the desired minimum number of rows
+     * @throws IllegalArgumentException if the number of rows is less than zero
+     * @throws OutOfMemoryError         if the number of elements in that many rows
+     *                                  exceeds the maximum length of an array
+     */
+    public void ensureCapacity(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("The number of rows must be greater than or equal to zero.");
         }
 
-        System.arraycopy(row, 0, buffer, count, columns);
+        final long capacity = (long) rows * columns;
 
-        rows++;
+        if (capacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("The number of elements exceeds the maximum length of an array.");
+        }
+
+        if (capacity > buffer.length) {
+            resize((int) capacity);
+        }
+    }
+
+    /**
+     * Ensures that the internal buffer can hold at least the given number of
+     * elements, doubling its capacity as needed.
+     * 
+     * @param minimum the minimum number of elements required, which is negative
+     *                if computing it overflowed
+     * @throws OutOfMemoryError if the minimum number of elements exceeds the
+     *                          maximum length of an array
+     */
+    private void grow(int minimum) {
+        final int capacity = buffer.length;
+
+        if (minimum >= 0 && minimum <= capacity) {
+            return;
+        }
+
+        if (minimum < 0 || minimum > MAX_CAPACITY) {
+            throw new OutOfMemoryError("The number of elements exceeds the maximum length of an array.");
+        }
+
+        // Double the capacity without overflowing, but never beyond the largest
+        // length that can be allocated
+
+        if (capacity == 0) {
+            resize(minimum);
+        } else {
+            resize(Math.max(minimum, capacity > MAX_CAPACITY / 2 ? MAX_CAPACITY : capacity * 2));
+        }
+    }
+
+    /**
+     * Reallocates the internal buffer with the given capacity and copies the
+     * elements of every row into it.
+     * 
+     * @param capacity the number of elements in the new buffer, which is at least
+     *                 the number of elements in the matrix
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        final Object[] newMatrix = new Object[capacity];
+        final int count = rows * columns;
+
+        if (count > 0) {
+            System.arraycopy(buffer, 0, newMatrix, 0, count);
+        }
+
+        buffer = (E[]) newMatrix;
+        growths++;
     }
 }
@@ -1,9 +1,20 @@
 package project4;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractSet;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An implementation of a binary search tree. The elements are ordered using
@@ -14,11 +25,17 @@ import java.util.Objects;
  * for unbalanced trees) time cost for the basic operations ({@code add},
  * {@code remove} and {@code contains}).
  * 
+ * A tree may be made persistent, after which no node reachable from the tree
+ * is ever modified again: each modification copies the O(H) nodes along its
+ * path and then publishes the new root atomically. Immutable snapshots of a
+ * persistent tree can then be taken in O(1) time and read by any number of
+ * threads without locks while the tree continues to change.
+ * 
  * @param <E> the type of elements maintained by this set
  * @author Ishan Pranav
  * @author Joanna Klukowska
  */
-public class BST<E extends Comparable<E>> implements Iterable<E> {
+public class BST<E extends Comparable<E>> implements Iterable<E>, Cloneable {
 
     /**
      * Provides a node for the binary search tree.
@@ -35,6 +52,9 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
         private E value;
         private int height = 1;
         private int count = 1;
+        private int hash;
+        private int power;
+        private Object summary;
         private Node left;
         private Node right;
 
@@ -67,6 +87,50 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
             return right;
         }
 
+        /**
+         * Gets the height of the sub-tree rooted at the node. The height of a leaf is
+         * 1.
+         * 
+         * @return the number of nodes along the longest path from the node to a leaf
+         */
+        protected int getHeight() {
+            return height;
+        }
+
+        /**
+         * Gets the number of nodes in the sub-tree rooted at the node.
+         * 
+         * @return the number of elements contained within the sub-tree, including
+         *         the node itself
+         */
+        protected int getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the summary of the sub-tree rooted at the node, as computed by
+         * {@link BST#summarize(Node)} whenever the sub-tree changes.
+         * 
+         * @return the sub-tree summary, or {@code null} if the tree does not maintain
+         *         summaries
+         */
+        protected Object getSummary() {
+            return summary;
+        }
+
+        /**
+         * Gets the content hash of the sub-tree rooted at the node, which depends
+         * only on the hash codes of its elements in ascending order and not on
+         * its shape. Sub-trees whose hashes differ contain different elements,
+         * so two versions of a tree can be compared without walking the
+         * sub-trees whose hashes match.
+         * 
+         * @return the content hash of the sub-tree
+         */
+        protected int getHash() {
+            return hash;
+        }
+
         /**
          * Initializes a new instance of the {@link Node} class.
          * 
@@ -75,21 +139,41 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
         private Node(E value) {
             this.value = value;
         }
+
+        /**
+         * Initializes a new instance of the {@link Node} class that is a copy of
+         * another node, sharing its sub-trees.
+         * 
+         * @param other the node to copy
+         */
+        private Node(Node other) {
+            value = other.value;
+            height = other.height;
+            count = other.count;
+            hash = other.hash;
+            power = other.power;
+            summary = other.summary;
+            left = other.left;
+            right = other.right;
+        }
     }
 
     /**
      * Defines the core behavior of a binary search tree traversal and provides a
-     * base for derived classes. This class wraps an underlying data structure and
-     * adds concurrent modification checks.
+     * base for derived classes. This class walks the tree incrementally, keeping
+     * only an O(H) stack of pending nodes between calls, and adds concurrent
+     * modification checks.
      * 
      * @author Ishan Pranav
      */
     private abstract class BSTIterator implements Iterator<E> {
         private final int expectedVersion = version;
-        private final Object[] buffer;
 
-        private int nextIndex;
-        private int processIndex;
+        /** The nodes whose traversal is in progress. */
+        protected final BSTFixedStack stack;
+
+        private Node next;
+        private boolean ready;
 
         /**
          * Called from constructors in derived classes to initialize the
@@ -97,9 +181,9 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
          */
         protected BSTIterator() {
             if (root == null) {
-                buffer = EmptyArray.instance();
+                stack = new BSTFixedStack(0);
             } else {
-                buffer = new Object[root.count];
+                stack = new BSTFixedStack(root.height);
             }
         }
 
@@ -107,10 +191,20 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
          * Returns {@code true} if the traversal has more elements.
          * 
          * @return {@code true} if the traversal has more elements
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified concurrently with the
+         *                                         traversal
          */
         @Override
         public boolean hasNext() {
-            return nextIndex < buffer.length;
+            if (!ready) {
+                checkVersion();
+
+                next = fetch();
+                ready = true;
+            }
+
+            return next != null;
         }
 
         /**
@@ -123,29 +217,36 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
          */
         @Override
         public E next() {
-            if (version != expectedVersion) {
-                throw new ConcurrentModificationException("Collection was modified during iteration.");
-            }
+            checkVersion();
 
-            if (nextIndex >= buffer.length) {
+            if (!hasNext()) {
                 throw new NoSuchElementException("Collection has no more elements.");
             }
 
-            final E result = (E) buffer[nextIndex];
-
-            nextIndex++;
+            ready = false;
 
-            return result;
+            return next.value;
         }
 
         /**
-         * Appends the given item to the internal data structure.
+         * Advances the traversal to the next node.
+         * 
+         * @return the next node, or {@code null} if the traversal is complete
+         */
+        protected abstract Node fetch();
+
+        /**
+         * Ensures that the binary search tree has not been modified since the
+         * traversal began.
          * 
-         * @param item the item to process
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified concurrently with the
+         *                                         traversal
          */
-        protected void process(E item) {
-            buffer[processIndex] = item;
-            processIndex++;
+        private void checkVersion() {
+            if (version != expectedVersion) {
+                throw new ConcurrentModificationException("Collection was modified during iteration.");
+            }
         }
     }
 
@@ -155,31 +256,37 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
      * @author Ishan Pranav
      */
     private class BSTSequentialIterator extends BSTIterator {
+        private Node current = root;
 
         /** Initializes a new instance of the {@link BSTSequentialIterator} class. */
         public BSTSequentialIterator() {
-            if (root != null) {
-                final BSTFixedStack stack = new BSTFixedStack(root.count);
-
-                boolean done = false;
-                Node current = root;
+        }
 
-                while (!done) {
-                    if (current != null) {
-                        stack.push(current);
+        /**
+         * Advances the traversal to the next node.
+         * 
+         * @return the next node, or {@code null} if the traversal is complete
+         */
+        @Override
+        protected Node fetch() {
+            // Descend along the left side, then visit the deepest pending node and
+            // continue with its right sub-tree
 
-                        current = current.left;
-                    } else if (stack.isEmpty()) {
-                        done = true;
-                    } else {
-                        current = stack.pop();
+            while (current != null) {
+                stack.push(current);
 
-                        process(current.value);
+                current = current.left;
+            }
 
-                        current = current.right;
-                    }
-                }
+            if (stack.isEmpty()) {
+                return null;
             }
+
+            final Node result = stack.pop();
+
+            current = result.right;
+
+            return result;
         }
     }
 
@@ -189,28 +296,39 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
      * @author Ishan Pranav
      */
     private class BSTPreorderIterator extends BSTIterator {
+        private Node current = root;
 
         /** Initializes a new instance of the {@link BSTPreorderIterator} class. */
         public BSTPreorderIterator() {
-            if (root != null) {
-                final BSTFixedStack stack = new BSTFixedStack(root.count);
+        }
 
-                stack.push(root);
+        /**
+         * Advances the traversal to the next node.
+         * 
+         * @return the next node, or {@code null} if the traversal is complete
+         */
+        @Override
+        protected Node fetch() {
+            // Only right sides are deferred to the stack; the left side is visited
+            // immediately after its parent
 
-                while (!stack.isEmpty()) {
-                    final Node current = stack.pop();
+            if (current == null) {
+                if (stack.isEmpty()) {
+                    return null;
+                }
 
-                    process(current.value);
+                current = stack.pop();
+            }
 
-                    if (current.right != null) {
-                        stack.push(current.right);
-                    }
+            final Node result = current;
 
-                    if (current.left != null) {
-                        stack.push(current.left);
-                    }
-                }
+            if (result.right != null) {
+                stack.push(result.right);
             }
+
+            current = result.left;
+
+            return result;
         }
     }
 
@@ -220,971 +338,3895 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
      * @author Ishan Pranav
      */
     private class BSTPostorderIterator extends BSTIterator {
+        private Node current = root;
+        private Node previous;
 
         /** Initializes a new instance of the {@link BSTPostorderIterator} class. */
         public BSTPostorderIterator() {
-            if (root != null) {
-                final BSTFixedStack stack = new BSTFixedStack(root.count);
-
-                stack.push(root);
+        }
 
-                boolean done = false;
-                Node current = root;
+        /**
+         * Advances the traversal to the next node.
+         * 
+         * @return the next node, or {@code null} if the traversal is complete
+         */
+        @Override
+        protected Node fetch() {
+            // Descend along the left side; a pending node is visited once its right
+            // side is empty or has just been visited
 
-                while (!done) {
-                    if (current != null) {
-                        stack.push(current);
+            while (true) {
+                if (current != null) {
+                    stack.push(current);
 
-                        current = current.left;
-                    } else if (stack.isEmpty()) {
-                        done = true;
-                    } else {
-                        Node right = stack.peek().right;
+                    current = current.left;
+                } else if (stack.isEmpty()) {
+                    return null;
+                } else {
+                    final Node right = stack.peek().right;
 
-                        if (right == null) {
-                            do {
-                                right = stack.pop();
+                    if (right == null || right == previous) {
+                        previous = stack.pop();
 
-                                process(right.value);
-                            } while (!stack.isEmpty() && stack.peek().right == right);
-                        } else {
-                            current = right;
-                        }
+                        return previous;
                     }
+
+                    current = right;
                 }
             }
         }
     }
 
     /**
-     * Provides a fixed-size array-based stack implementation to simulate a
-     * recursive function stack trace.
+     * Provides an ascending or descending (inorder) traversal of the elements of
+     * the binary search tree within a range. The first element of the range is
+     * located in O(H) time, after which each element is visited in O(1)
+     * amortized time.
      * 
      * @author Ishan Pranav
      */
-    private class BSTFixedStack {
-        private final Object[] buffer;
-
-        private int count;
+    private class BSTRangeIterator extends BSTIterator {
+        private final E from;
+        private final E to;
+        private final boolean descending;
 
         /**
-         * Initializes a new instance of the {@link BSTFixedStack} class.
+         * Initializes a new instance of the {@link BSTRangeIterator} class.
          * 
-         * @param capacity the fixed capacity of the internal buffer
+         * @param from       the low endpoint (inclusive) of the range, or
+         *                   {@code null} if the range has no low endpoint
+         * @param to         the high endpoint (exclusive) of the range, or
+         *                   {@code null} if the range has no high endpoint
+         * @param descending {@code true} to traverse the range in descending order;
+         *                   otherwise, {@code false}
          */
-        public BSTFixedStack(int capacity) {
-            if (capacity == 0) {
-                buffer = EmptyArray.instance();
-            } else {
-                buffer = new Object[capacity];
+        public BSTRangeIterator(E from, E to, boolean descending) {
+            this.from = from;
+            this.to = to;
+            this.descending = descending;
+
+            // Push every node along the path to the first element of the range
+            // whose value could begin the traversal
+
+            Node current = root;
+
+            while (current != null) {
+                if (descending) {
+                    if (isTooHigh(current.value, to)) {
+                        current = current.left;
+                    } else {
+                        stack.push(current);
+
+                        current = current.right;
+                    }
+                } else if (isTooLow(current.value, from)) {
+                    current = current.right;
+                } else {
+                    stack.push(current);
+
+                    current = current.left;
+                }
             }
         }
 
         /**
-         * Gets a value indicating whether the collection is empty.
+         * Advances the traversal to the next node.
          * 
-         * @return {@code true} if the stack is empty; otherwise, {@code false}
+         * @return the next node, or {@code null} if the traversal is complete
          */
-        public boolean isEmpty() {
-            return count == 0;
-        }
+        @Override
+        protected Node fetch() {
+            if (stack.isEmpty()) {
+                return null;
+            }
 
-        /**
-         * Adds the specified item to the front of the collection.
-         * 
-         * @param item the item to add
-         */
-        public void push(Node item) {
-            buffer[count] = item;
-            count++;
-        }
+            final Node result = stack.pop();
 
-        /**
-         * Gets the front of the collection.
-         * 
-         * @return the first item
-         */
-        public Node peek() {
-            return (Node) buffer[count - 1];
-        }
+            // Stop at the first node beyond the far endpoint of the range
 
-        /**
-         * Retrieves and removes the first item from the front of the collection.
-         * 
-         * @return the item removed
-         */
-        public Node pop() {
-            final Node result = peek();
+            if (descending) {
+                if (isTooLow(result.value, from)) {
+                    stack.clear();
 
-            count--;
-            buffer[count] = null;
+                    return null;
+                }
 
-            return result;
-        }
+                Node current = result.left;
 
-        /** Clears the stack, updating each node's height and count from bottom up. */
-        private void saveChanges() {
-            while (count > 0) {
-                final Node node = pop();
-                final boolean hasLeft = node.left != null;
-                final boolean hasRight = node.right != null;
-
-                if (hasLeft && hasRight) {
-                    node.height = Math.max(node.left.height, node.right.height) + 1;
-                    node.count = node.left.count + node.right.count + 1;
-                } else if (hasLeft) {
-                    node.height = node.left.height + 1;
-                    node.count = node.left.count + 1;
-                } else if (hasRight) {
-                    node.height = node.right.height + 1;
-                    node.count = node.right.count + 1;
-                } else {
-                    node.height = 1;
-                    node.count = 1;
+                while (current != null) {
+                    stack.push(current);
+
+                    current = current.right;
+                }
+            } else {
+                if (isTooHigh(result.value, to)) {
+                    stack.clear();
+
+                    return null;
+                }
+
+                Node current = result.right;
+
+                while (current != null) {
+                    stack.push(current);
+
+                    current = current.left;
                 }
             }
+
+            return result;
         }
     }
 
     /**
-     * Provides a minimal linked list node with two data fields used in searching
-     * and sorting algorithms to simulate a recursive function stack trace.
+     * Provides a cursor over the elements of the binary search tree in ascending
+     * order. The cursor remembers its position along with the path of ancestors
+     * leading to it, so moving to a nearby position only climbs as far as the
+     * nearest common ancestor before descending again. Sequential access through
+     * {@link #next()} and {@link #previous()} is O(1) amortized, and positioning
+     * by index or by value near the current position costs far less than a
+     * search from the root.
+     * 
+     * The position of a new cursor lies before the first element; the position
+     * lies after the last element once {@link #seek(Comparable)} finds no
+     * element.
      * 
      * @author Ishan Pranav
      */
-    private static class BSTIndexNode {
-        private int left;
-        private int right;
-        private BSTIndexNode next;
+    public class BSTCursor implements Iterator<E> {
+        private final int expectedVersion = version;
+        private final Object[] nodes;
+        private final int[] offsets;
+        private final int[] lowers;
+        private final int[] uppers;
 
-        /** Initializes a new instance of the {@link BSTIndexNode} class. */
-        public BSTIndexNode() {
-        }
-    }
+        private int depth;
+        private int index = -1;
 
-    private int version;
-    private Node root;
+        /** Initializes a new instance of the {@link BSTCursor} class. */
+        private BSTCursor() {
+            int capacity = 0;
 
-    /**
-     * Constructs a new, empty tree, sorted according to the natural ordering of its
-     * elements.
-     */
-    public BST() {
-    }
+            if (root != null) {
+                capacity = root.height;
+            }
 
-    /**
-     * Constructs a new tree containing the elements in the specified collection,
-     * sorted according to the natural ordering of its elements.
-     * 
-     * @param collection collection whose elements will comprise the new tree
-     * @throws NullPointerException if the specified collection is null
-     */
-    public BST(E[] collection) {
-        if (collection == null) {
-            throw new NullPointerException("Argument cannot be null. Argument name: collection.");
+            // For each node along the path, store the index of the first element
+            // of its sub-tree and the depths of the nearest ancestors bounding its
+            // values from below and above
+
+            nodes = new Object[capacity];
+            offsets = new int[capacity];
+            lowers = new int[capacity];
+            uppers = new int[capacity];
         }
 
-        // Create a shallow clone of the array to maintain the integrity of the
-        // reference passed as a constructor argument; since this method takes a mutable
-        // reference type as an argument, we must ensure that that we do not surprise
-        // the user of the class by mutating their object (such as by sorting the array)
+        /**
+         * Gets the index of the position of this cursor.
+         * 
+         * @return the index of the current element, {@code -1} if the position lies
+         *         before the first element, or the size of the tree if it lies
+         *         after the last element
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified since the cursor was
+         *                                         created
+         */
+        public int index() {
+            checkVersion();
 
-        final E[] array = (E[]) new Comparable[collection.length];
+            return index;
+        }
+
+        /**
+         * Moves this cursor to the element at the specified position in the tree.
+         * 
+         * This operation should be O(D), where D is the height of the smallest
+         * sub-tree containing both the current and the requested element.
+         * 
+         * @param index index of the element to return
+         * @return the element at the specified position in the tree
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified since the cursor was
+         *                                         created
+         * @throws IndexOutOfBoundsException       if the index is out of range
+         *                                         ({@code index < 0 || index >= size()})
+         */
+        public E get(int index) {
+            checkVersion();
 
-        System.arraycopy(collection, 0, array, 0, collection.length);
-        sort(array);
+            if (index < 0 || root == null || index >= root.count) {
+                throw new IndexOutOfBoundsException("Argument is out of range. Argument name: index.");
+            }
 
-        BSTIndexNode head = new BSTIndexNode();
+            // Climb to the nearest ancestor whose sub-tree contains the index
 
-        head.right = array.length - 1;
+            while (depth > 0
+                    && (index < offsets[depth - 1] || index >= offsets[depth - 1] + nodeAt(depth - 1).count)) {
+                depth--;
+            }
 
-        while (head != null) {
-            final int left = head.left;
-            final int right = head.right;
-            final int center = (right + left) / 2;
+            if (depth == 0) {
+                push(root, 0, -1, -1);
+            }
 
-            head = head.next;
+            // Descend using the counts of the sub-trees
 
-            add(array[center]);
+            while (true) {
+                final int top = depth - 1;
+                final Node node = nodeAt(top);
+                final int current = offsets[top] + countOf(node.left);
 
-            if (left < right) {
-                BSTIndexNode node = new BSTIndexNode();
+                if (index < current) {
+                    push(node.left, offsets[top], lowers[top], top);
+                } else if (index > current) {
+                    push(node.right, current + 1, top, uppers[top]);
+                } else {
+                    this.index = index;
 
-                node.left = left;
-                node.right = center - 1;
-                node.next = head;
-                head = node;
-                node = new BSTIndexNode();
-                node.left = center + 1;
-                node.right = right;
-                node.next = head;
-                head = node;
+                    return node.value;
+                }
             }
         }
-    }
 
-    /**
-     * Gets a reference to the root node of the tree.
-     * 
-     * @return the root node
-     */
-    protected Node getRoot() {
-        return root;
-    }
+        /**
+         * Moves this cursor to the least element in the tree greater than or equal
+         * to the given element.
+         * 
+         * This operation should be O(D), where D is the height of the smallest
+         * sub-tree containing both the current and the requested element.
+         * 
+         * @param e the value to match
+         * @return the least element greater than or equal to {@code e}, or
+         *         {@code null} if there is no such element, in which case the
+         *         position lies after the last element
+         * @throws ClassCastException              if the specified element cannot be
+         *                                         compared with the elements
+         *                                         currently in the set
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified since the cursor was
+         *                                         created
+         * @throws NullPointerException            if the specified element is null
+         */
+        public E seek(E e) {
+            if (e == null) {
+                throw new NullPointerException("Argument cannot be null. Argument name: e.");
+            }
 
-    /**
-     * Adds the specified element to this set if it is not already present.
-     * 
-     * More formally, adds the specified element e to this tree if the set contains
-     * no element e2 such that Objects.equals(e, e2). If this set already contains
-     * the element, the call leaves the set unchanged and returns false.
-     * 
-     * This operation should be O(H).
-     * 
-     * @param e element to be added to this set
-     * @return {@code true} if this set did not already contain the specified
-     *         element
-     * @throws NullPointerException if the specified element is null and this set
-     *                              uses natural ordering, or its comparator does
-     *                              not permit null elements
-     */
-    public boolean add(E e) {
-        if (e == null) {
-            throw new NullPointerException("Argument cannot be null. Argument name: e.");
-        }
+            checkVersion();
 
-        if (root == null) {
-            root = new Node(e);
-            version++;
+            // Climb to the nearest ancestor whose sub-tree holds the values between
+            // the element and its ceiling
 
-            return true;
-        }
+            while (depth > 0 && ((lowers[depth - 1] >= 0 && e.compareTo(nodeAt(lowers[depth - 1]).value) <= 0)
+                    || (uppers[depth - 1] >= 0 && e.compareTo(nodeAt(uppers[depth - 1]).value) > 0))) {
+                depth--;
+            }
 
-        final BSTFixedStack stack = new BSTFixedStack(root.height);
+            if (depth == 0) {
+                if (root == null) {
+                    index = 0;
+
+                    return null;
+                }
+
+                push(root, 0, -1, -1);
+            }
+
+            // The ceiling is either within the sub-tree or its upper bound
+
+            int ceiling = uppers[depth - 1];
+
+            while (true) {
+                final int top = depth - 1;
+                final Node node = nodeAt(top);
+                final int comparison = e.compareTo(node.value);
+
+                if (comparison == 0) {
+                    ceiling = top;
+
+                    break;
+                }
+
+                final Node next;
+
+                if (comparison < 0) {
+                    ceiling = top;
+                    next = node.left;
+                } else {
+                    next = node.right;
+                }
+
+                if (next == null) {
+                    break;
+                }
+
+                if (comparison < 0) {
+                    push(next, offsets[top], lowers[top], top);
+                } else {
+                    push(next, offsets[top] + countOf(node.left) + 1, top, uppers[top]);
+                }
+            }
+
+            // Nodes below the ceiling lie within its left sub-tree
+
+            depth = ceiling + 1;
+
+            if (ceiling < 0) {
+                index = root.count;
+
+                return null;
+            }
+
+            index = offsets[ceiling] + countOf(nodeAt(ceiling).left);
+
+            return nodeAt(ceiling).value;
+        }
+
+        /**
+         * Returns {@code true} if an element follows the position of this cursor.
+         * 
+         * @return {@code true} if an element follows the position of this cursor
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified since the cursor was
+         *                                         created
+         */
+        @Override
+        public boolean hasNext() {
+            checkVersion();
+
+            return root != null && index + 1 < root.count;
+        }
+
+        /**
+         * Moves this cursor to the next element in the tree.
+         * 
+         * This operation should be O(1) amortized.
+         * 
+         * @return the next element
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified since the cursor was
+         *                                         created
+         * @throws NoSuchElementException          if no element follows the position
+         *                                         of this cursor
+         */
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Collection has no more elements.");
+            }
+
+            return get(index + 1);
+        }
+
+        /**
+         * Returns {@code true} if an element precedes the position of this cursor.
+         * 
+         * @return {@code true} if an element precedes the position of this cursor
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified since the cursor was
+         *                                         created
+         */
+        public boolean hasPrevious() {
+            checkVersion();
+
+            return index > 0;
+        }
+
+        /**
+         * Moves this cursor to the previous element in the tree.
+         * 
+         * This operation should be O(1) amortized.
+         * 
+         * @return the previous element
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified since the cursor was
+         *                                         created
+         * @throws NoSuchElementException          if no element precedes the
+         *                                         position of this cursor
+         */
+        public E previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("Collection has no more elements.");
+            }
+
+            return get(index - 1);
+        }
+
+        /**
+         * Appends a node to the path of ancestors.
+         * 
+         * @param node   the node
+         * @param offset the index of the first element of the sub-tree of the node
+         * @param lower  the depth of the nearest ancestor less than the node, or
+         *               {@code -1} if there is no such ancestor
+         * @param upper  the depth of the nearest ancestor greater than the node, or
+         *               {@code -1} if there is no such ancestor
+         */
+        private void push(Node node, int offset, int lower, int upper) {
+            nodes[depth] = node;
+            offsets[depth] = offset;
+            lowers[depth] = lower;
+            uppers[depth] = upper;
+            depth++;
+        }
+
+        /**
+         * Gets a node along the path of ancestors.
+         * 
+         * @param depth the depth of the node
+         * @return the node
+         */
+        private Node nodeAt(int depth) {
+            return asNode(nodes[depth]);
+        }
+
+        /**
+         * Ensures that the binary search tree has not been modified since the
+         * cursor was created.
+         * 
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified since the cursor was
+         *                                         created
+         */
+        private void checkVersion() {
+            if (version != expectedVersion) {
+                throw new ConcurrentModificationException("Collection was modified during iteration.");
+            }
+        }
+    }
+
+    /**
+     * Provides a sized, splittable sequential (inorder) traversal for the binary
+     * search tree. Each instance covers a contiguous range of indices; splitting
+     * divides the range at its midpoint, so both halves know their exact size.
+     * Traversal begins by locating the first index of the range in O(H) time
+     * using the counts of the sub-trees, and then proceeds incrementally with an
+     * O(H) stack of pending nodes.
+     * 
+     * @author Ishan Pranav
+     */
+    private class BSTSpliterator implements Spliterator<E> {
+        private final int expectedVersion;
+        private final int fence;
+
+        private int index;
+        private BSTFixedStack stack;
+
+        /**
+         * Initializes a new instance of the {@link BSTSpliterator} class.
+         * 
+         * @param origin          the index of the first element to traverse
+         * @param fence           the index following the last element to traverse
+         * @param expectedVersion the version of the tree when the traversal began
+         */
+        public BSTSpliterator(int origin, int fence, int expectedVersion) {
+            index = origin;
+            this.fence = fence;
+            this.expectedVersion = expectedVersion;
+        }
+
+        /**
+         * Performs the given action on the next element, if one exists.
+         * 
+         * @param action the action
+         * @return {@code false} if no remaining elements existed; otherwise,
+         *         {@code true}
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified concurrently with the
+         *                                         traversal
+         * @throws NullPointerException            if the specified action is null
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null) {
+                throw new NullPointerException("Argument cannot be null. Argument name: action.");
+            }
+
+            checkVersion();
+
+            if (index >= fence) {
+                return false;
+            }
+
+            action.accept(fetch().value);
+
+            return true;
+        }
+
+        /**
+         * Performs the given action on each remaining element.
+         * 
+         * @param action the action
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified concurrently with the
+         *                                         traversal
+         * @throws NullPointerException            if the specified action is null
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            if (action == null) {
+                throw new NullPointerException("Argument cannot be null. Argument name: action.");
+            }
+
+            checkVersion();
+
+            while (index < fence) {
+                action.accept(fetch().value);
+            }
+
+            checkVersion();
+        }
+
+        /**
+         * Partitions the remaining elements by covering the first half of them with
+         * a new spliterator.
+         * 
+         * @return a spliterator covering the first half of the remaining elements,
+         *         or {@code null} if fewer than two elements remain
+         */
+        @Override
+        public Spliterator<E> trySplit() {
+            final int middle = (index + fence) >>> 1;
+
+            if (middle <= index) {
+                return null;
+            }
+
+            final BSTSpliterator result = new BSTSpliterator(index, middle, expectedVersion);
+
+            // The traversal, if any, resumes by locating the new first index
+
+            index = middle;
+            stack = null;
+
+            return result;
+        }
+
+        /**
+         * Gets the exact number of remaining elements.
+         * 
+         * @return the number of remaining elements
+         */
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        /**
+         * Gets the characteristics of the spliterator.
+         * 
+         * @return the characteristics
+         */
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.SORTED
+                    | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        /**
+         * Gets the comparator of the source, which is {@code null} since the
+         * elements are sorted according to their natural ordering.
+         * 
+         * @return {@code null}
+         */
+        @Override
+        public Comparator<? super E> getComparator() {
+            return null;
+        }
+
+        /**
+         * Advances the traversal to the next node.
+         * 
+         * @return the node at the current index
+         */
+        private Node fetch() {
+            if (stack == null) {
+                stack = new BSTFixedStack(root.height);
+
+                // Push every node whose left side contains the current index, then the
+                // node at the current index itself
+
+                Node current = root;
+                int offset = index;
+
+                while (current != null) {
+                    final int leftCount;
+
+                    if (current.left == null) {
+                        leftCount = 0;
+                    } else {
+                        leftCount = current.left.count;
+                    }
+
+                    if (offset < leftCount) {
+                        stack.push(current);
+
+                        current = current.left;
+                    } else if (offset > leftCount) {
+                        current = current.right;
+                        offset -= leftCount + 1;
+                    } else {
+                        stack.push(current);
+
+                        current = null;
+                    }
+                }
+            }
+
+            final Node result = stack.pop();
+
+            Node current = result.right;
+
+            while (current != null) {
+                stack.push(current);
+
+                current = current.left;
+            }
+
+            index++;
+
+            return result;
+        }
+
+        /**
+         * Ensures that the binary search tree has not been modified since the
+         * traversal began.
+         * 
+         * @throws ConcurrentModificationException if the binary search tree has been
+         *                                         modified concurrently with the
+         *                                         traversal
+         */
+        private void checkVersion() {
+            if (version != expectedVersion) {
+                throw new ConcurrentModificationException("Collection was modified during iteration.");
+            }
+        }
+    }
+
+    /**
+     * Provides a view of the portion of the binary search tree whose elements
+     * range from a low endpoint (inclusive) to a high endpoint (exclusive). The
+     * view is backed by the tree, so changes to the tree are reflected in the
+     * view, and vice-versa. Its size is computed in O(H) time using the counts of
+     * the sub-trees, and its iterators locate the first element of the range in
+     * O(H) time.
+     * 
+     * @author Ishan Pranav
+     */
+    private class BSTSubSet extends AbstractSet<E> implements SortedSet<E> {
+        private final E from;
+        private final E to;
+
+        /**
+         * Initializes a new instance of the {@link BSTSubSet} class.
+         * 
+         * @param from the low endpoint (inclusive) of the range, or {@code null} if
+         *             the range has no low endpoint
+         * @param to   the high endpoint (exclusive) of the range, or {@code null} if
+         *             the range has no high endpoint
+         */
+        public BSTSubSet(E from, E to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Returns an iterator over the elements in this view in ascending order.
+         * 
+         * @return an iterator over the elements in this view in ascending order
+         */
+        @Override
+        public Iterator<E> iterator() {
+            return new BSTRangeIterator(from, to, false);
+        }
+
+        /**
+         * Returns an iterator over the elements in this view in descending order.
+         * 
+         * @return an iterator over the elements in this view in descending order
+         */
+        public Iterator<E> descendingIterator() {
+            return new BSTRangeIterator(from, to, true);
+        }
+
+        /**
+         * Returns the number of elements in this view.
+         * 
+         * This operation should be O(H).
+         * 
+         * @return the number of elements in this view
+         */
+        @Override
+        public int size() {
+            final int high;
+            final int low;
+
+            if (to == null) {
+                high = BST.this.size();
+            } else {
+                high = rank(to);
+            }
+
+            if (from == null) {
+                low = 0;
+            } else {
+                low = rank(from);
+            }
+
+            return high - low;
+        }
+
+        /**
+         * Returns {@code true} if this view contains the specified element.
+         * 
+         * @param o object to be checked for containment in this view
+         * @return {@code true} if this view contains the specified element
+         * @throws ClassCastException   if the specified object cannot be compared
+         *                              with the elements currently in the tree
+         * @throws NullPointerException if the specified element is null
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (o == null) {
+                throw new NullPointerException("Argument cannot be null. Argument name: o.");
+            }
+
+            return isInRange((E) o) && BST.this.contains(o);
+        }
+
+        /**
+         * Adds the specified element to the tree if it is not already present.
+         * 
+         * @param e element to be added to this view
+         * @return {@code true} if this view did not already contain the specified
+         *         element
+         * @throws IllegalArgumentException if the specified element is outside the
+         *                                  range of this view
+         * @throws NullPointerException     if the specified element is null
+         */
+        @Override
+        public boolean add(E e) {
+            if (e == null) {
+                throw new NullPointerException("Argument cannot be null. Argument name: e.");
+            }
+
+            if (!isInRange(e)) {
+                throw new IllegalArgumentException("Argument is out of range. Argument name: e.");
+            }
+
+            return BST.this.add(e);
+        }
+
+        /**
+         * Removes the specified element from the tree if it is present within this
+         * view.
+         * 
+         * @param o object to be removed from this view, if present
+         * @return {@code true} if this view contained the specified element
+         * @throws ClassCastException   if the specified object cannot be compared
+         *                              with the elements currently in the tree
+         * @throws NullPointerException if the specified element is null
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (o == null) {
+                throw new NullPointerException("Argument cannot be null. Argument name: o.");
+            }
+
+            return isInRange((E) o) && BST.this.remove(o);
+        }
+
+        /** Removes all of the elements in this view from the tree. */
+        @Override
+        public void clear() {
+            while (!isEmpty()) {
+                BST.this.remove(first());
+            }
+        }
+
+        /**
+         * Gets the comparator used to order the elements in this view, which is
+         * {@code null} since the elements are sorted according to their natural
+         * ordering.
+         * 
+         * @return {@code null}
+         */
+        @Override
+        public Comparator<? super E> comparator() {
+            return null;
+        }
+
+        /**
+         * Returns a view of the portion of this view whose elements range from
+         * {@code fromElement}, inclusive, to {@code toElement}, exclusive.
+         * 
+         * @param fromElement low endpoint (inclusive) of the returned view
+         * @param toElement   high endpoint (exclusive) of the returned view
+         * @return a view of the portion of this view within the range
+         * @throws IllegalArgumentException if {@code fromElement} is greater than
+         *                                  {@code toElement}, or if either endpoint
+         *                                  lies outside the range of this view
+         * @throws NullPointerException     if either endpoint is null
+         */
+        @Override
+        public SortedSet<E> subSet(E fromElement, E toElement) {
+            return BST.this.subSet(checkFrom(fromElement), checkTo(toElement));
+        }
+
+        /**
+         * Returns a view of the portion of this view whose elements are strictly
+         * less than {@code toElement}.
+         * 
+         * @param toElement high endpoint (exclusive) of the returned view
+         * @return a view of the portion of this view within the range
+         * @throws IllegalArgumentException if {@code toElement} lies outside the
+         *                                  range of this view
+         * @throws NullPointerException     if {@code toElement} is null
+         */
+        @Override
+        public SortedSet<E> headSet(E toElement) {
+            return new BSTSubSet(from, checkTo(toElement));
+        }
+
+        /**
+         * Returns a view of the portion of this view whose elements are greater
+         * than or equal to {@code fromElement}.
+         * 
+         * @param fromElement low endpoint (inclusive) of the returned view
+         * @return a view of the portion of this view within the range
+         * @throws IllegalArgumentException if {@code fromElement} lies outside the
+         *                                  range of this view
+         * @throws NullPointerException     if {@code fromElement} is null
+         */
+        @Override
+        public SortedSet<E> tailSet(E fromElement) {
+            return new BSTSubSet(checkFrom(fromElement), to);
+        }
+
+        /**
+         * Returns the first (lowest) element currently in this view.
+         * 
+         * @return the first (lowest) element currently in this view
+         * @throws NoSuchElementException if this view is empty
+         */
+        @Override
+        public E first() {
+            final Iterator<E> iterator = iterator();
+
+            if (!iterator.hasNext()) {
+                throw new NoSuchElementException("Cannot retrieve the first element of an empty set.");
+            }
+
+            return iterator.next();
+        }
+
+        /**
+         * Returns the last (highest) element currently in this view.
+         * 
+         * @return the last (highest) element currently in this view
+         * @throws NoSuchElementException if this view is empty
+         */
+        @Override
+        public E last() {
+            final Iterator<E> iterator = descendingIterator();
+
+            if (!iterator.hasNext()) {
+                throw new NoSuchElementException("Cannot retrieve the last element of an empty set.");
+            }
+
+            return iterator.next();
+        }
+
+        /**
+         * Determines whether an element lies within the range of this view.
+         * 
+         * @param e the element
+         * @return {@code true} if the element lies within the range; otherwise,
+         *         {@code false}
+         */
+        private boolean isInRange(E e) {
+            return !isTooLow(e, from) && !isTooHigh(e, to);
+        }
+
+        /**
+         * Ensures that the low endpoint of a view within this view lies within the
+         * range of this view.
+         * 
+         * @param fromElement the low endpoint
+         * @return the low endpoint
+         * @throws IllegalArgumentException if the endpoint lies outside the range
+         * @throws NullPointerException     if the endpoint is null
+         */
+        private E checkFrom(E fromElement) {
+            if (fromElement == null) {
+                throw new NullPointerException("Argument cannot be null. Argument name: fromElement.");
+            }
+
+            if (!isInRange(fromElement)) {
+                throw new IllegalArgumentException("Argument is out of range. Argument name: fromElement.");
+            }
+
+            return fromElement;
+        }
+
+        /**
+         * Ensures that the high endpoint of a view within this view lies within the
+         * range of this view.
+         * 
+         * @param toElement the high endpoint
+         * @return the high endpoint
+         * @throws IllegalArgumentException if the endpoint lies outside the range
+         * @throws NullPointerException     if the endpoint is null
+         */
+        private E checkTo(E toElement) {
+            if (toElement == null) {
+                throw new NullPointerException("Argument cannot be null. Argument name: toElement.");
+            }
+
+            if (isTooLow(toElement, from) || (to != null && toElement.compareTo(to) > 0)) {
+                throw new IllegalArgumentException("Argument is out of range. Argument name: toElement.");
+            }
+
+            return toElement;
+        }
+    }
+
+    /**
+     * Provides a fixed-size array-based stack implementation to simulate a
+     * recursive function stack trace. The capacity may be increased while the
+     * stack is empty, so that a single stack can be reused across operations.
+     * 
+     * @author Ishan Pranav
+     */
+    private class BSTFixedStack {
+        private Object[] buffer;
+
+        private int count;
+
+        /**
+         * Initializes a new instance of the {@link BSTFixedStack} class.
+         * 
+         * @param capacity the fixed capacity of the internal buffer
+         */
+        public BSTFixedStack(int capacity) {
+            if (capacity == 0) {
+                buffer = EmptyArray.instance();
+            } else {
+                buffer = new Object[capacity];
+            }
+        }
+
+        /**
+         * Gets a value indicating whether the collection is empty.
+         * 
+         * @return {@code true} if the stack is empty; otherwise, {@code false}
+         */
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        /**
+         * Adds the specified item to the front of the collection.
+         * 
+         * @param item the item to add
+         */
+        public void push(Node item) {
+            buffer[count] = item;
+            count++;
+        }
+
+        /**
+         * Adds the specified node to the front of the path being modified. If the
+         * tree is persistent, a copy of the node is added instead and linked into
+         * the copy of its parent, which is the previous item on the stack.
+         * 
+         * @param node the node
+         * @return the node that was added, which may be modified
+         */
+        public Node visit(Node node) {
+            final Node result = copyOnWrite(node);
+
+            if (result != node && count > 0) {
+                final Node parent = peek();
+
+                if (parent.left == node) {
+                    parent.left = result;
+                } else {
+                    parent.right = result;
+                }
+            }
+
+            push(result);
+
+            return result;
+        }
+
+        /**
+         * Gets the front of the collection.
+         * 
+         * @return the first item
+         */
+        public Node peek() {
+            return (Node) buffer[count - 1];
+        }
+
+        /**
+         * Retrieves and removes the first item from the front of the collection.
+         * 
+         * @return the item removed
+         */
+        public Node pop() {
+            final Node result = peek();
+
+            count--;
+            buffer[count] = null;
+
+            return result;
+        }
+
+        /**
+         * Ensures that the empty stack can hold at least the given number of items,
+         * at least doubling its capacity when it must grow.
+         * 
+         * @param capacity the minimum capacity
+         */
+        public void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = new Object[Math.max(capacity, buffer.length * 2)];
+            }
+        }
+
+        /** Removes every item from the collection. */
+        public void clear() {
+            while (count > 0) {
+                count--;
+                buffer[count] = null;
+            }
+        }
+
+        /**
+         * Clears the stack, updating each node's height, count and summary from
+         * bottom up, and then makes the bottom of the stack the root of the tree.
+         */
+        private void saveChanges() {
+            final boolean balancing = isSelfBalancing();
+
+            Node result = null;
+
+            while (count > 0) {
+                final Node node = pop();
+
+                update(node);
+
+                result = node;
+
+                if (!balancing) {
+                    continue;
+                }
+
+                // The parent of each node is the next item on the stack; replace the
+                // node with the root of its rebalanced sub-tree
+
+                result = balance(node);
+
+                if (result == node || count == 0) {
+                    continue;
+                }
+
+                if (peek().left == node) {
+                    peek().left = result;
+                } else {
+                    peek().right = result;
+                }
+            }
+
+            // Publish the root only once every node along the path is up-to-date
+
+            if (result != null) {
+                root = result;
+            }
+        }
+    }
+
+    /**
+     * Provides a fork/join task that builds a balanced sub-tree from a range of a
+     * sorted array of distinct elements. Ranges longer than the threshold are
+     * split at their median, and their left and right sides are built
+     * concurrently; shorter ranges are built sequentially.
+     * 
+     * @author Ishan Pranav
+     */
+    private class BSTBuildTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+
+        private final E[] array;
+        private final int left;
+        private final int right;
+
+        /**
+         * Initializes a new instance of the {@link BSTBuildTask} class.
+         * 
+         * @param array the sorted array of distinct elements
+         * @param left  the first index of the range
+         * @param right the last index of the range
+         */
+        public BSTBuildTask(E[] array, int left, int right) {
+            this.array = array;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Builds the sub-tree.
+         * 
+         * @return the root of the sub-tree, or {@code null} if the range is empty
+         */
+        @Override
+        protected Node compute() {
+            if (right - left < BUILD_THRESHOLD) {
+                return build(array, left, right);
+            }
+
+            final int center = (left + right) / 2;
+            final BSTBuildTask leftTask = new BSTBuildTask(array, left, center - 1);
+            final Node result = new Node(array[center]);
+
+            leftTask.fork();
+
+            result.right = new BSTBuildTask(array, center + 1, right).compute();
+            result.left = leftTask.join();
+
+            update(result);
+
+            return result;
+        }
+    }
+
+    /**
+     * Provides a fork/join task that sorts a range of an array using the IntroSort
+     * algorithm. Ranges longer than the threshold are partitioned, and the
+     * elements less than and greater than the pivot element are sorted
+     * concurrently; shorter ranges are sorted sequentially.
+     * 
+     * @author Ishan Pranav
+     */
+    private class BSTSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final E[] array;
+        private final int left;
+        private final int right;
+        private final int depth;
+
+        /**
+         * Initializes a new instance of the {@link BSTSortTask} class.
+         * 
+         * @param array the values to sort
+         * @param left  the first index to sort
+         * @param right the last index to sort
+         * @param depth the number of partitioning levels remaining before HeapSort
+         *              is used instead
+         */
+        public BSTSortTask(E[] array, int left, int right, int depth) {
+            this.array = array;
+            this.left = left;
+            this.right = right;
+            this.depth = depth;
+        }
+
+        /** Sorts the range. */
+        @Override
+        protected void compute() {
+            if (right - left < PARALLEL_SORT_THRESHOLD || depth == 0) {
+                sort(array, left, right, depth);
+
+                return;
+            }
+
+            final int lower = partition(array, left, right);
+            final int upper = skipEqual(array, lower, right);
+            final BSTSortTask leftTask = new BSTSortTask(array, left, lower - 1, depth - 1);
+
+            leftTask.fork();
+            new BSTSortTask(array, upper + 1, right, depth - 1).compute();
+            leftTask.join();
+        }
+    }
+
+    private static final int BUILD_THRESHOLD = 1 << 13;
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B1;
+
+    private int version;
+    private volatile Node root;
+    private volatile boolean persistent;
+    private boolean frozen;
+
+    /**
+     * Constructs a new, empty tree, sorted according to the natural ordering of its
+     * elements.
+     */
+    public BST() {
+    }
+
+    /**
+     * Constructs a new tree containing the elements in the specified collection,
+     * sorted according to the natural ordering of its elements.
+     * 
+     * This operation should be O(NlogN) to sort the elements and O(N) to build
+     * the tree.
+     * 
+     * @param collection collection whose elements will comprise the new tree
+     * @throws NullPointerException if the specified collection is null or contains
+     *                              null elements
+     */
+    public BST(E[] collection) {
+        if (collection == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: collection.");
+        }
+
+        final BuildEvent event = new BuildEvent();
+
+        event.begin();
+
+        // Create a shallow clone of the array to maintain the integrity of the
+        // reference passed as a constructor argument; since this method takes a mutable
+        // reference type as an argument, we must ensure that that we do not surprise
+        // the user of the class by mutating their object (such as by sorting the array)
+
+        final E[] array = (E[]) new Comparable[collection.length];
+
+        for (int i = 0; i < collection.length; i++) {
+            if (collection[i] == null) {
+                throw new NullPointerException("Argument cannot contain null elements. Argument name: collection.");
+            }
+
+            array[i] = collection[i];
+        }
+
+        // Build the balanced tree directly from the sorted distinct elements
+
+        root = build(array, sort(array));
+
+        if (root != null) {
+            version++;
+        }
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.nodeCount = size();
+            event.height = height();
+            event.commit();
+        }
+    }
+
+    /**
+     * Gets a reference to the root node of the tree.
+     * 
+     * @return the root node
+     */
+    protected Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Computes a summary of the sub-tree rooted at the given node. Derived classes
+     * override this method to maintain per-sub-tree aggregates alongside the
+     * height and count of each node. This method is called from bottom up
+     * whenever a sub-tree changes, so the children of the node, including their
+     * heights, counts and summaries, are already up-to-date.
+     * 
+     * The default implementation maintains no summary.
+     * 
+     * @param node the root of the sub-tree to summarize
+     * @return the summary of the sub-tree, or {@code null}
+     */
+    protected Object summarize(Node node) {
+        return null;
+    }
+
+    /**
+     * Determines whether this tree balances itself. Derived classes override this
+     * method to keep the heights of the left and right sides of every node within
+     * one of each other (AVL balancing) by rotating nodes after each insertion and
+     * removal, and to arrange bulk-loaded elements in a balanced tree. The shape
+     * of the tree then no longer reflects the order in which elements are added.
+     * 
+     * The default implementation does not balance the tree.
+     * 
+     * @return {@code true} if this tree balances itself; otherwise, {@code false}
+     */
+    protected boolean isSelfBalancing() {
+        return false;
+    }
+
+    /**
+     * Gets the number of structural modifications made to the tree. Derived
+     * classes use this value to detect concurrent modifications.
+     * 
+     * @return the version of the tree
+     */
+    protected int getVersion() {
+        return version;
+    }
+
+    /**
+     * Makes this tree persistent. From then on, no node reachable from this tree
+     * is ever modified: each insertion and removal copies the nodes along its path
+     * and then replaces the root atomically, so that snapshots of this tree can be
+     * taken with {@link #snapshot()}. A tree cannot stop being persistent, since
+     * its snapshots share nodes with it.
+     * 
+     * This method must be called before the tree is shared with other threads.
+     * 
+     * This operation should be O(1).
+     */
+    public void makePersistent() {
+        persistent = true;
+    }
+
+    /**
+     * Determines whether this tree is persistent.
+     * 
+     * @return {@code true} if this tree is persistent; otherwise, {@code false}
+     */
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    /**
+     * Returns an immutable snapshot of this persistent tree. The snapshot shares
+     * every node with this tree, and is an instance of the same class as this
+     * tree. Since the nodes of a persistent tree are never modified, the snapshot
+     * remains consistent while this tree changes: any number of threads may read
+     * it without locks, and its iterators never throw a
+     * {@link ConcurrentModificationException}. Any attempt to modify the snapshot
+     * throws an {@link UnsupportedOperationException}.
+     * 
+     * This method may be called from any thread. This operation should be O(1).
+     * 
+     * @return an immutable snapshot of this tree
+     * @throws IllegalStateException if this tree is not persistent
+     */
+    public BST<E> snapshot() {
+        if (!persistent) {
+            throw new IllegalStateException("Cannot take a snapshot of a tree that is not persistent.");
+        }
+
+        if (frozen) {
+            return this;
+        }
+
+        final Object copy;
+
+        try {
+            copy = clone();
+        } catch (CloneNotSupportedException cloneNotSupportedException) {
+            throw new IllegalStateException(cloneNotSupportedException);
+        }
+
+        @SuppressWarnings("unchecked")
+        final BST<E> result = (BST<E>) copy;
+
+        // Read the published root explicitly, since cloning does not honor the
+        // memory semantics of volatile fields
+
+        result.root = root;
+        result.frozen = true;
+
+        return result;
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     * 
+     * More formally, adds the specified element e to this tree if the set contains
+     * no element e2 such that Objects.equals(e, e2). If this set already contains
+     * the element, the call leaves the set unchanged and returns false.
+     * 
+     * This operation should be O(H).
+     * 
+     * @param e element to be added to this set
+     * @return {@code true} if this set did not already contain the specified
+     *         element
+     * @throws NullPointerException if the specified element is null and this set
+     *                              uses natural ordering, or its comparator does
+     *                              not permit null elements
+     */
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+        }
+
+        checkWritable();
+
+        if (root == null) {
+            final Node node = new Node(e);
+
+            update(node);
+
+            root = node;
+            version++;
+
+            return true;
+        }
+
+        if (!insert(e, new BSTFixedStack(root.height))) {
+            return false;
+        }
+
+        version++;
+
+        return true;
+    }
+
+    /**
+     * Adds each element of the specified array to this tree, in order, if it is
+     * not already present. The resulting tree is the same as if {@link #add} were
+     * called once per element, but the tree is modified as a single operation:
+     * one path buffer is shared by every insertion, and iterators over this tree
+     * are invalidated once. If this tree is empty, the whole array is loaded at
+     * once using {@link #load}, which likewise keeps the first of any equal
+     * elements.
+     * 
+     * This operation should be O(MH) for M elements, or O(MlogM) if this tree is
+     * empty.
+     * 
+     * @param elements the elements to add, in insertion order
+     * @return the number of elements added to this tree
+     * @throws NullPointerException if the specified array is null or contains null
+     *                              elements
+     */
+    public int addAll(E[] elements) {
+        if (elements == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: elements.");
+        }
+
+        checkWritable();
+
+        if (elements.length == 0) {
+            return 0;
+        }
+
+        if (root == null) {
+            load(elements);
+
+            return root.count;
+        }
+
+        final BSTFixedStack stack = new BSTFixedStack(root.height);
+
+        int result = 0;
+
+        try {
+            for (int i = 0; i < elements.length; i++) {
+                if (addTo(elements[i], stack)) {
+                    result++;
+                }
+            }
+        } finally {
+            if (result > 0) {
+                version++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds each element of the specified collection to this tree, in iteration
+     * order, if it is not already present. The resulting tree is the same as if
+     * {@link #add} were called once per element, but the tree is modified as a
+     * single operation: one path buffer is shared by every insertion, and
+     * iterators over this tree are invalidated once. If this tree is empty, the
+     * whole collection is loaded at once using {@link #load}, which likewise keeps
+     * the first of any equal elements.
+     * 
+     * This operation should be O(MH) for M elements, or O(MlogM) if this tree is
+     * empty.
+     * 
+     * @param elements the elements to add, in insertion order
+     * @return the number of elements added to this tree
+     * @throws NullPointerException if the specified collection is null or
+     *                              contains null elements
+     */
+    public int addAll(Iterable<? extends E> elements) {
+        if (elements == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: elements.");
+        }
+
+        checkWritable();
+
+        if (root == null) {
+            E[] array = newArray(16);
+
+            int count = 0;
+
+            for (E e : elements) {
+                if (count == array.length) {
+                    final E[] newArray = newArray(array.length * 2);
+
+                    System.arraycopy(array, 0, newArray, 0, count);
+
+                    array = newArray;
+                }
+
+                array[count] = e;
+                count++;
+            }
+
+            final E[] sequence = newArray(count);
+
+            System.arraycopy(array, 0, sequence, 0, count);
+
+            return addAll(sequence);
+        }
+
+        final BSTFixedStack stack = new BSTFixedStack(root.height);
+
+        int result = 0;
+
+        try {
+            for (E e : elements) {
+                if (addTo(e, stack)) {
+                    result++;
+                }
+            }
+        } finally {
+            if (result > 0) {
+                version++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the specified element to this non-empty tree, if it is not already
+     * present, without changing its version. This method is used within a broader
+     * bulk insertion algorithm.
+     * 
+     * @param e     element to be added to this set
+     * @param stack the shared path buffer, which is enlarged if this tree has
+     *              grown taller than its capacity
+     * @return {@code true} if this set did not already contain the specified
+     *         element
+     * @throws NullPointerException if the specified element is null
+     */
+    private boolean addTo(E e, BSTFixedStack stack) {
+        if (e == null) {
+            throw new NullPointerException("Argument cannot contain null elements. Argument name: elements.");
+        }
+
+        stack.ensureCapacity(root.height);
+
+        return insert(e, stack);
+    }
+
+    /**
+     * Adds the specified element to this non-empty tree if it is not already
+     * present, without changing its version.
+     * 
+     * @param e     element to be added to this set
+     * @param stack an empty stack whose capacity is at least the height of this
+     *              tree, which is used to record the path to the new node and is
+     *              empty again when this method returns
+     * @return {@code true} if this set did not already contain the specified
+     *         element
+     */
+    private boolean insert(E e, BSTFixedStack stack) {
+        Node parent = null;
+        Node current = root;
+        int comparison = 0;
+
+        while (current != null) {
+            current = stack.visit(current);
+
+            if (Objects.equals(current.value, e)) {
+                stack.clear();
+
+                return false;
+            }
+
+            comparison = e.compareTo(current.value);
+            parent = current;
+
+            if (comparison < 0) {
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+
+        final Node node = new Node(e);
+
+        update(node);
+
+        if (comparison < 0) {
+            parent.left = node;
+        } else {
+            parent.right = node;
+        }
+
+        stack.saveChanges();
+
+        return true;
+    }
+
+    /**
+     * Replaces the contents of this tree with the elements in the specified
+     * sequence. The resulting tree has exactly the same shape as the tree produced
+     * by adding each element of the sequence, in order, to an empty tree:
+     * elements added earlier are ancestors of elements added later, and only the
+     * first occurrence of equal elements is kept.
+     * 
+     * Rather than descending from the root once per element, the elements are
+     * sorted, each distinct element is assigned the index of its first occurrence
+     * as a priority, and the tree is built as the Cartesian tree of the sorted
+     * elements with respect to their priorities in a single left-to-right pass.
+     * 
+     * If this tree balances itself, the distinct elements are arranged in a
+     * balanced tree instead.
+     * 
+     * This operation should be O(NlogN) regardless of the order of the sequence.
+     * 
+     * @param sequence the elements, in insertion order
+     * @throws NullPointerException if the specified sequence is null or contains
+     *                              null elements
+     */
+    protected void load(E[] sequence) {
+        if (sequence == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: sequence.");
+        }
+
+        checkWritable();
+
+        final BuildEvent event = new BuildEvent();
+
+        event.begin();
+
+        final E[] array = newArray(sequence.length);
+
+        for (int i = 0; i < sequence.length; i++) {
+            if (sequence[i] == null) {
+                throw new NullPointerException("Argument cannot contain null elements. Argument name: sequence.");
+            }
+
+            array[i] = sequence[i];
+        }
+
+        final int length = sort(array);
+        final int[] priorities = prioritize(sequence, array, length);
+
+        // Sorting keeps an arbitrary copy of each group of equal elements, whereas
+        // repeated additions keep the copy added first
+
+        for (int i = 0; i < length; i++) {
+            array[i] = sequence[priorities[i]];
+        }
+
+        if (isSelfBalancing()) {
+            root = build(array, length);
+        } else {
+            root = buildInOrder(array, priorities, length);
+        }
+
+        version++;
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.nodeCount = size();
+            event.height = height();
+            event.commit();
+        }
+    }
+
+    /**
+     * Removes the specified element from this tree if it is present.
+     * 
+     * More formally, removes an element e such that {@code Objects.equals(o, e)},
+     * if this tree contains such an element. Returns true if this tree contained
+     * the element (or equivalently, if this tree changed as a result of the call).
+     * (This tree will not contain the element once the call returns.)
+     * 
+     * @param o object to be removed from this set, if present
+     * @return {@code true} if this set contained the specified element
+     * @throws ClassCastException   if the specified object cannot be compared with
+     *                              the elements currently in this tree
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean remove(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: o.");
+        }
+
+        checkWritable();
+
+        if (root == null) {
+            return false;
+        }
+
+        final E e = (E) o;
+        final BSTFixedStack stack = new BSTFixedStack(root.height);
 
         Node parent = null;
         Node current = root;
-        int comparison = 0;
 
         while (current != null) {
-            stack.push(current);
+            current = stack.visit(current);
+
+            final int comparison = e.compareTo(current.value);
+
+            if (comparison == 0) {
+                break;
+            }
+
+            parent = current;
+            
+            if (comparison < 0) {
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+
+        if (current == null) {
+            return false;
+        }
+
+        final boolean hasLeft = current.left != null;
+        final boolean hasRight = current.right != null;
+
+        if (hasLeft && hasRight) {
+            Node successorParent = current;
+            Node successor = current.right;
+
+            // Record the path to the parent of the successor, which is detached
+
+            while (successor.left != null) {
+                successor = stack.visit(successor);
+
+                successorParent = successor;
+                successor = successor.left;
+            }
+
+            if (successorParent == current) {
+                current.right = successor.right;
+            } else {
+                successorParent.left = successor.right;
+            }
+
+            current.value = successor.value;
+        } else {
+            final Node child;
+
+            if (hasLeft) {
+                child = current.left;
+            } else {
+                child = current.right;
+            }
+
+            // Forget the detached node
+
+            stack.pop();
+
+            if (parent == null) {
+                root = child;
+            } else if (current == parent.left) {
+                parent.left = child;
+            } else {
+                parent.right = child;
+            }
+        }
+
+        stack.saveChanges();
+
+        version++;
+
+        return true;
+    }
+
+    /**
+     * Removes all of the elements from this set.
+     * 
+     * The set will be empty after this call returns.
+     * 
+     * This operation should be O(1).
+     */
+    public void clear() {
+        checkWritable();
+
+        root = null;
+        version++;
+    }
+
+    /**
+     * Rebuilds this tree into a balanced tree using the Day-Stout-Warren
+     * algorithm. The nodes are first rotated into a vine, a tree in which every
+     * left side is empty, and the vine is then compressed into a balanced tree by
+     * repeated left rotations, so that the height of this tree becomes
+     * {@code floor(log2(N)) + 1}. The shape of this tree then no longer reflects
+     * the order in which elements were added.
+     * 
+     * If this tree is persistent, its nodes are shared with its snapshots, so a
+     * balanced copy of this tree is built from its elements instead.
+     * 
+     * This operation should be O(N) and uses O(1) extra space, or O(N) extra
+     * space if this tree is persistent.
+     */
+    public void rebalance() {
+        checkWritable();
+
+        if (root == null) {
+            return;
+        }
+
+        if (persistent) {
+            final E[] array = newArray(root.count);
+
+            int index = 0;
+
+            for (E e : this) {
+                array[index] = e;
+                index++;
+            }
+
+            root = build(array, array.length);
+            version++;
+
+            return;
+        }
+
+        final int size = root.count;
+        final Node pseudoRoot = new Node((E) null);
+
+        pseudoRoot.right = root;
+
+        // Rotate every left side into the vine, which grows along the right side of
+        // the pseudo-root
+
+        Node tail = pseudoRoot;
+        Node rest = root;
+
+        while (rest != null) {
+            if (rest.left == null) {
+                tail = rest;
+                rest = rest.right;
+            } else {
+                final Node left = rest.left;
+
+                rest.left = left.right;
+                left.right = rest;
+                rest = left;
+                tail.right = left;
+            }
+        }
+
+        // Compress the excess nodes into the bottom level, then halve the vine
+        // until it is balanced
+
+        final int leaves = size + 1 - Integer.highestOneBit(size + 1);
+
+        compress(pseudoRoot, leaves);
+
+        int count = size - leaves;
+
+        while (count > 1) {
+            count /= 2;
+
+            compress(pseudoRoot, count);
+        }
+
+        // The nodes remaining along the right side of the tree are updated from
+        // bottom up; the right side is O(logN) long, so it is walked again for
+        // each node rather than recorded
+
+        Node end = null;
+
+        while (end != pseudoRoot.right) {
+            Node node = pseudoRoot.right;
+
+            while (node.right != end) {
+                node = node.right;
+            }
+
+            update(node);
+
+            end = node;
+        }
+
+        root = pseudoRoot.right;
+        version++;
+    }
+
+    /**
+     * Rotates every other node along the vine to the left, so that the given
+     * number of nodes leave the vine as left children. This method is used within
+     * a broader Day-Stout-Warren algorithm. The sub-tree of each node leaving the
+     * vine never changes again, so it is updated immediately.
+     * 
+     * @param pseudoRoot the node whose right side is the vine
+     * @param count      the number of rotations
+     */
+    private void compress(Node pseudoRoot, int count) {
+        Node scanner = pseudoRoot;
+
+        for (int i = 0; i < count; i++) {
+            final Node child = scanner.right;
+
+            scanner.right = child.right;
+            scanner = scanner.right;
+            child.right = scanner.left;
+            scanner.left = child;
+
+            update(child);
+        }
+    }
+
+    /**
+     * Returns true if this set contains the specified element.
+     * 
+     * More formally, returns true if and only if this set contains an element e
+     * such that {@code Objects.equals(o, e)}.
+     * 
+     * This operation should be O(H).
+     * 
+     * @param o object to be checked for containment in this set
+     * @return {@code true} if this set contains the specified element
+     * @throws ClassCastException   if the specified object cannot be compared with
+     *                              the elements currently in the set
+     * @throws NullPointerException if the specified element is null and this set
+     *                              uses natural ordering, or its comparator does
+     *                              not permit null elements
+     */
+    public boolean contains(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: o.");
+        }
+
+        final E e = (E) o;
+        Node current = root;
+
+        while (current != null) {
+            int comparison = e.compareTo(current.value);
+
+            if (comparison == 0) {
+                return true;
+            } else if (comparison < 0) {
+                current = current.left;
+            } else if (comparison > 0) {
+                current = current.right;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the number of elements in this tree.
+     * 
+     * This operation should be O(1).
+     * 
+     * @return the number of elements in this tree
+     */
+    public int size() {
+        if (root == null) {
+            return 0;
+        } else {
+            return root.count;
+        }
+    }
+
+    /**
+     * Returns true if this set contains no elements.
+     * 
+     * This operation should be O(1).
+     * 
+     * @return {@code true} if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the height of this tree.
+     * 
+     * The height of a leaf is 1. The height of the tree is the height of its root
+     * node.
+     * 
+     * @return the height of this tree or zero if the tree is empty
+     */
+    public int height() {
+        if (root == null) {
+            return 0;
+        } else {
+            return root.height;
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements in this tree in ascending order.
+     * 
+     * This operation should be O(N).
+     * 
+     * @return an iterator over the elements in this set in ascending order
+     */
+    public Iterator<E> iterator() {
+        return new BSTSequentialIterator();
+    }
+
+    /**
+     * Returns an iterator over the elements in this tree in order of the preorder
+     * traversal.
+     * 
+     * This operation should be O(N).
+     * 
+     * @return an iterator over the elements in this tree in order of the preorder
+     *         traversal
+     */
+    public Iterator<E> preorderIterator() {
+        return new BSTPreorderIterator();
+    }
+
+    /**
+     * Returns an iterator over the elements in this tree in order of the postorder
+     * traversal.
+     * 
+     * This operation should be O(N).
+     * 
+     * @return an iterator over the elements in this tree in order of the postorder
+     *         traversal
+     */
+    public Iterator<E> postorderIterator() {
+        return new BSTPostorderIterator();
+    }
+
+    /**
+     * Returns an iterator over the elements in this tree in descending order.
+     * 
+     * This operation should be O(N).
+     * 
+     * @return an iterator over the elements in this tree in descending order
+     */
+    public Iterator<E> descendingIterator() {
+        return new BSTRangeIterator(null, null, true);
+    }
+
+    /**
+     * Returns a cursor over the elements in this tree in ascending order, whose
+     * position lies before the first element.
+     * 
+     * This operation should be O(1).
+     * 
+     * @return a cursor over the elements in this tree
+     */
+    public BSTCursor cursor() {
+        return new BSTCursor();
+    }
+
+    /**
+     * Creates a spliterator over the elements in this tree in ascending order. The
+     * spliterator reports its exact size and splits into exactly sized halves.
+     * 
+     * This operation should be O(1); traversal should be O(N).
+     * 
+     * @return a spliterator over the elements in this tree
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        final int count;
+
+        if (root == null) {
+            count = 0;
+        } else {
+            count = root.count;
+        }
+
+        return new BSTSpliterator(0, count, version);
+    }
+
+    /**
+     * Returns a sequential stream of the elements in this tree in ascending order.
+     * 
+     * @return a sequential stream over the elements in this tree
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the elements in this tree in ascending order.
+     * 
+     * @return a parallel stream over the elements in this tree
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns the element at the specified position in this tree.
+     * 
+     * The order of the indexed elements is the same as provided by this tree's
+     * iterator. The indexing is zero based (i.e., the smallest element in this tree
+     * is at index 0 and the largest one is at index {@code size()}-1).
+     * 
+     * This operation should be O(H).
+     * 
+     * @param index index of the element to return
+     * @return the element at the specified position in this tree
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *                                   ({@code index < 0 || index >= size()})
+     */
+    public E get(int index) {
+        if (index < 0 || root == null || index >= root.count) {
+            throw new IndexOutOfBoundsException("Argument is out of range. Argument name: index.");
+        }
+
+        return get(root, index);
+    }
+
+    /**
+     * Returns the element at the specified position within a sub-tree.
+     * 
+     * @param node  the root of the sub-tree
+     * @param index index of the element to return, relative to the first element
+     *              of the sub-tree, which must be in range
+     * @return the element at the specified position in the sub-tree
+     */
+    private E get(Node node, int index) {
+        Node current = node;
+
+        while (current != null) {
+            final int leftCount;
+
+            if (current.left == null) {
+                leftCount = 0;
+            } else {
+                leftCount = current.left.count;
+            }
+
+            if (index < leftCount) {
+                current = current.left;
+            } else if (index > leftCount) {
+                current = current.right;
+                index -= leftCount + 1;
+            } else {
+                return current.value;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the least element in this tree greater than or equal to the given
+     * element, or {@code null} if there is no such element.
+     * 
+     * This operation should be O(H).
+     * 
+     * @param e the value to match
+     * @return the least element greater than or equal to {@code e}, or {@code null}
+     *         if there is no such element
+     * @throws ClassCastException   if the specified element cannot be compared with
+     *                              the elements currently in the set
+     * @throws NullPointerException if the specified element is null
+     */
+    public E ceiling(E e) {
+        if (e == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+        }
+
+        Node ceiling = null;
+        Node current = root;
+
+        while (current != null) {
+            final int comparison = e.compareTo(current.value);
+
+            if (comparison <= 0) {
+                ceiling = current;
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+
+        if (ceiling == null) {
+            return null;
+        } else {
+            return ceiling.value;
+        }
+    }
+
+    /**
+     * Returns the greatest element in this set less than or equal to the given
+     * element, or {@code null} if there is no such element.
+     * 
+     * This operation should be O(H).
+     * 
+     * @param e the value to match
+     * @return the greatest element less than or equal to {@code e}, or {@code null}
+     *         if there is no such element
+     * @throws ClassCastException   if the specified element cannot be compared with
+     *                              the elements currently in the set
+     * @throws NullPointerException if the specified element is null
+     */
+    public E floor(E e) {
+        if (e == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+        }
+
+        Node floor = null;
+        Node current = root;
+
+        while (current != null) {
+            final int comparison = e.compareTo(current.value);
 
-            if (Objects.equals(current.value, e)) {
-                return false;
+            if (comparison >= 0) {
+                floor = current;
+                current = current.right;
+            } else {
+                current = current.left;
             }
+        }
 
-            comparison = e.compareTo(current.value);
-            parent = current;
+        if (floor == null) {
+            return null;
+        } else {
+            return floor.value;
+        }
+    }
+
+    /**
+     * Returns the first (lowest) element currently in this tree.
+     * 
+     * This operation should be O(H).
+     * 
+     * @return the first (lowest) element currently in this tree
+     * @throws NoSuchElementException if this set is empty
+     */
+    public E first() {
+        if (root == null) {
+            throw new NoSuchElementException("Cannot retrieve the first element of an empty tree.");
+        }
+
+        Node current = root;
+        
+        while (current.left != null) {
+            current = current.left;
+        }
+
+        return current.value;
+    }
+
+    /**
+     * Returns the last (highest) element currently in this tree.
+     * 
+     * This operation should be O(H).
+     * 
+     * @return the last (highest) element currently in this tree
+     * @throws NoSuchElementException if this set is empty
+     */
+    public E last() {
+        if (root == null) {
+            throw new NoSuchElementException("Cannot retrieve the last element of an empty tree.");
+        }
+
+        Node current = root;
+
+        while (current.right != null) {
+            current = current.right;
+        }
+
+        return current.value;
+    }
+
+    /**
+     * Returns the greatest element in this set strictly less than the given
+     * element, or {@code null} if there is no such element.
+     * 
+     * This operation should be O(H).
+     * 
+     * @param e the value to match
+     * @return the greatest element less than {@code e}, or {@code null} if there is
+     *         no such element
+     * @throws ClassCastException   if the specified element cannot be compared with
+     *                              the elements currently in the set
+     * @throws NullPointerException if the specified element is null
+     */
+    public E lower(E e) {
+        if (e == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+        }
+
+        Node lower = null;
+        Node current = root;
+
+        while (current != null) {
+            final int comparison = e.compareTo(current.value);
+
+            if (comparison > 0) {
+                lower = current;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+
+        if (lower == null) {
+            return null;
+        } else {
+            return lower.value;
+        }
+    }
+
+    /**
+     * Returns the least element in this tree strictly greater than the given
+     * element, or {@code null} if there is no such element.
+     * 
+     * This operation should be O(H).
+     * 
+     * @param e the value to match
+     * @return the least element greater than {@code e}, or {@code null} if there is
+     *         no such element
+     * @throws ClassCastException   if the specified element cannot be compared with
+     *                              the elements currently in the set
+     * @throws NullPointerException if the specified element is null
+     */
+    public E higher(E e) {
+        if (e == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+        }
+
+        Node higher = null;
+        Node current = root;
+
+        while (current != null) {
+            final int comparison = e.compareTo(current.value);
 
             if (comparison < 0) {
+                higher = current;
                 current = current.left;
             } else {
                 current = current.right;
             }
         }
 
-        final Node node = new Node(e);
-
-        if (comparison < 0) {
-            parent.left = node;
+        if (higher == null) {
+            return null;
         } else {
-            parent.right = node;
+            return higher.value;
         }
+    }
 
-        stack.saveChanges();
+    /**
+     * Returns the number of elements in this tree strictly less than the given
+     * element. If the element is present, this is its index in the order provided
+     * by this tree's iterator.
+     * 
+     * This operation should be O(H).
+     * 
+     * @param e the value to match
+     * @return the number of elements less than {@code e}
+     * @throws ClassCastException   if the specified element cannot be compared with
+     *                              the elements currently in the set
+     * @throws NullPointerException if the specified element is null
+     */
+    public int rank(E e) {
+        if (e == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+        }
 
-        version++;
+        int result = 0;
+        Node current = root;
 
-        return true;
+        while (current != null) {
+            if (e.compareTo(current.value) > 0) {
+                result++;
+
+                if (current.left != null) {
+                    result += current.left.count;
+                }
+
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+
+        return result;
     }
 
     /**
-     * Removes the specified element from this tree if it is present.
+     * Returns the number of elements in this tree ranging from {@code from},
+     * inclusive, to {@code to}, exclusive.
      * 
-     * More formally, removes an element e such that {@code Objects.equals(o, e)},
-     * if this tree contains such an element. Returns true if this tree contained
-     * the element (or equivalently, if this tree changed as a result of the call).
-     * (This tree will not contain the element once the call returns.)
+     * This operation should be O(H).
      * 
-     * @param o object to be removed from this set, if present
-     * @return {@code true} if this set contained the specified element
-     * @throws ClassCastException   if the specified object cannot be compared with
-     *                              the elements currently in this tree
-     * @throws NullPointerException if the specified element is null
+     * @param from low endpoint (inclusive) of the range
+     * @param to   high endpoint (exclusive) of the range
+     * @return the number of elements within the range
+     * @throws ClassCastException       if either endpoint cannot be compared with
+     *                                  the elements currently in the set
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     * @throws NullPointerException     if either endpoint is null
      */
-    public boolean remove(Object o) {
-        if (o == null) {
-            throw new NullPointerException("Argument cannot be null. Argument name: o.");
+    public int countRange(E from, E to) {
+        checkRange(from, to);
+
+        return rank(to) - rank(from);
+    }
+
+    /**
+     * Returns a view of the portion of this tree whose elements range from
+     * {@code fromElement}, inclusive, to {@code toElement}, exclusive. The view is
+     * backed by this tree, so changes to the tree are reflected in the view, and
+     * vice-versa.
+     * 
+     * This operation should be O(1); the size of the view should be O(H), and
+     * iterating over its K elements should be O(H + K).
+     * 
+     * @param fromElement low endpoint (inclusive) of the returned view
+     * @param toElement   high endpoint (exclusive) of the returned view
+     * @return a view of the portion of this tree within the range
+     * @throws ClassCastException       if either endpoint cannot be compared with
+     *                                  the elements currently in the set
+     * @throws IllegalArgumentException if {@code fromElement} is greater than
+     *                                  {@code toElement}
+     * @throws NullPointerException     if either endpoint is null
+     */
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        checkRange(fromElement, toElement);
+
+        return new BSTSubSet(fromElement, toElement);
+    }
+
+    /**
+     * Returns a view of the portion of this tree whose elements are strictly less
+     * than {@code toElement}. The view is backed by this tree, so changes to the
+     * tree are reflected in the view, and vice-versa.
+     * 
+     * This operation should be O(1); the size of the view should be O(H), and
+     * iterating over its K elements should be O(H + K).
+     * 
+     * @param toElement high endpoint (exclusive) of the returned view
+     * @return a view of the portion of this tree within the range
+     * @throws NullPointerException if {@code toElement} is null
+     */
+    public SortedSet<E> headSet(E toElement) {
+        if (toElement == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: toElement.");
         }
 
-        if (root == null) {
-            return false;
+        return new BSTSubSet(null, toElement);
+    }
+
+    /**
+     * Returns a view of the portion of this tree whose elements are greater than
+     * or equal to {@code fromElement}. The view is backed by this tree, so changes
+     * to the tree are reflected in the view, and vice-versa.
+     * 
+     * This operation should be O(1); the size of the view should be O(H), and
+     * iterating over its K elements should be O(H + K).
+     * 
+     * @param fromElement low endpoint (inclusive) of the returned view
+     * @return a view of the portion of this tree within the range
+     * @throws NullPointerException if {@code fromElement} is null
+     */
+    public SortedSet<E> tailSet(E fromElement) {
+        if (fromElement == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: fromElement.");
+        }
+
+        return new BSTSubSet(fromElement, null);
+    }
+
+    /**
+     * Determines, for each key in a sorted array, whether this tree contains an
+     * equal element. Rather than searching from the root once per key, all of the
+     * keys descend the tree together: each node is visited at most once, and the
+     * keys reaching it are divided between its sides by binary search.
+     * 
+     * This operation should be O(min(N, MH)) node visits for M keys.
+     * 
+     * @param keys    the values to match, sorted in ascending order
+     * @param results the array into which the result for the key at each index is
+     *                stored at the same index
+     * @throws ClassCastException       if any key cannot be compared with the
+     *                                  elements currently in the set
+     * @throws IllegalArgumentException if the keys are not sorted, or if the
+     *                                  results array is shorter than the keys
+     * @throws NullPointerException     if either array is null, or if the keys
+     *                                  contain null elements
+     */
+    public void containsAll(E[] keys, boolean[] results) {
+        if (results == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: results.");
+        }
+
+        checkKeys(keys, results.length);
+        search(keys, results, null, null);
+    }
+
+    /**
+     * Finds, for each key in a sorted array, the greatest element in this tree
+     * less than or equal to the key, or {@code null} if there is no such element.
+     * All of the keys descend the tree together, so each node is visited at most
+     * once.
+     * 
+     * This operation should be O(min(N, MH)) node visits for M keys.
+     * 
+     * @param keys    the values to match, sorted in ascending order
+     * @param results the array into which the result for the key at each index is
+     *                stored at the same index
+     * @throws ClassCastException       if any key cannot be compared with the
+     *                                  elements currently in the set
+     * @throws IllegalArgumentException if the keys are not sorted, or if the
+     *                                  results array is shorter than the keys
+     * @throws NullPointerException     if either array is null, or if the keys
+     *                                  contain null elements
+     */
+    public void floorAll(E[] keys, E[] results) {
+        if (results == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: results.");
+        }
+
+        checkKeys(keys, results.length);
+        search(keys, null, results, null);
+    }
+
+    /**
+     * Finds, for each key in a sorted array, the least element in this tree
+     * greater than or equal to the key, or {@code null} if there is no such
+     * element. All of the keys descend the tree together, so each node is visited
+     * at most once.
+     * 
+     * This operation should be O(min(N, MH)) node visits for M keys.
+     * 
+     * @param keys    the values to match, sorted in ascending order
+     * @param results the array into which the result for the key at each index is
+     *                stored at the same index
+     * @throws ClassCastException       if any key cannot be compared with the
+     *                                  elements currently in the set
+     * @throws IllegalArgumentException if the keys are not sorted, or if the
+     *                                  results array is shorter than the keys
+     * @throws NullPointerException     if either array is null, or if the keys
+     *                                  contain null elements
+     */
+    public void ceilingAll(E[] keys, E[] results) {
+        if (results == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: results.");
+        }
+
+        checkKeys(keys, results.length);
+        search(keys, null, null, results);
+    }
+
+    /**
+     * Retrieves the elements at each position in a sorted array of indices. All
+     * of the indices descend the tree together using the counts of the sub-trees,
+     * so each node is visited at most once.
+     * 
+     * This operation should be O(min(N, MH)) node visits for M indices.
+     * 
+     * @param indices the indices of the elements to return, sorted in ascending
+     *                order
+     * @param results the array into which the element at each index is stored at
+     *                the same position as the index
+     * @throws IllegalArgumentException  if the indices are not sorted, or if the
+     *                                   results array is shorter than the indices
+     * @throws IndexOutOfBoundsException if any index is out of range
+     *                                   ({@code index < 0 || index >= size()})
+     * @throws NullPointerException      if either array is null
+     */
+    public void getAll(int[] indices, E[] results) {
+        if (indices == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: indices.");
+        }
+
+        if (results == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: results.");
+        }
+
+        if (results.length < indices.length) {
+            throw new IllegalArgumentException("Argument is out of range. Argument name: results.");
+        }
+
+        if (indices.length == 0) {
+            return;
         }
 
-        final E e = (E) o;
-        final BSTFixedStack stack = new BSTFixedStack(root.height);
+        for (int i = 1; i < indices.length; i++) {
+            if (indices[i - 1] > indices[i]) {
+                throw new IllegalArgumentException(
+                        "Argument must be sorted in ascending order. Argument name: indices.");
+            }
+        }
+
+        if (indices[0] < 0 || indices[indices.length - 1] >= size()) {
+            throw new IndexOutOfBoundsException("Argument is out of range. Argument name: indices.");
+        }
+
+        // Each pending sub-tree is described by its root, the range of indices that
+        // reach it, and the index of its first element; at most one sub-tree per
+        // level is pending at once
+
+        final int capacity = root.height + 1;
+        final Object[] nodes = new Object[capacity];
+        final int[] ranges = new int[3 * capacity];
+
+        int index = 1;
+
+        nodes[0] = root;
+        ranges[0] = 0;
+        ranges[1] = indices.length;
+        ranges[2] = 0;
+
+        while (index > 0) {
+            index--;
+
+            final Node node = asNode(nodes[index]);
+            final int first = ranges[3 * index];
+            final int last = ranges[3 * index + 1];
+            final int offset = ranges[3 * index + 2];
+            nodes[index] = null;
+
+            if (last - first == 1) {
+                // A single index has nothing left to share, so it descends alone
+
+                results[first] = get(node, indices[first] - offset);
 
-        Node parent = null;
-        Node current = root;
+                continue;
+            }
 
-        while (current != null) {
-            stack.push(current);
+            final int position = offset + countOf(node.left);
+            final int equal = bound(indices, first, last, position);
 
-            final int comparison = e.compareTo(current.value);
+            int greater = equal;
 
-            if (comparison == 0) {
-                break;
+            while (greater < last && indices[greater] == position) {
+                greater++;
             }
 
-            parent = current;
-            
-            if (comparison < 0) {
-                current = current.left;
-            } else {
-                current = current.right;
+            for (int i = equal; i < greater; i++) {
+                results[i] = node.value;
+            }
+
+            if (greater < last) {
+                nodes[index] = node.right;
+                ranges[3 * index] = greater;
+                ranges[3 * index + 1] = last;
+                ranges[3 * index + 2] = position + 1;
+                index++;
+            }
+
+            if (first < equal) {
+                nodes[index] = node.left;
+                ranges[3 * index] = first;
+                ranges[3 * index + 1] = equal;
+                ranges[3 * index + 2] = offset;
+                index++;
             }
         }
+    }
 
-        if (current == null) {
+    /**
+     * Compares the specified object with this tree for equality.
+     * 
+     * Returns {@code true} if the given object is also a tree, the two trees have
+     * the same size, and every member of the given tree is contained in this tree.
+     * 
+     * Trees whose content hashes differ are rejected without comparing their
+     * elements, so this operation should be O(1) for most unequal trees and O(N)
+     * for equal trees.
+     * 
+     * @param obj object to be compared for equality with this tree
+     * @return {@code true} if the specified object is equal to this tree
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (!(obj instanceof BST)) {
             return false;
         }
 
-        final boolean hasLeft = current.left != null;
-        final boolean hasRight = current.right != null;
+        final BST other = (BST) obj;
 
-        if (hasLeft && hasRight) {
-            Node successorParent = current;
-            Node successor = current.right;
+        if (root == other.root) {
+            return true;
+        }
 
-            stack.push(successor);
+        // Trees with different content hashes cannot be equal
 
-            while (successor.left != null) {
-                stack.push(successor.left);
+        if (size() != other.size() || hashCode() != other.hashCode()) {
+            return false;
+        }
 
-                successorParent = successor;
-                successor = successor.left;
-            }
+        Iterator<E> iterator = iterator();
+        Iterator otherIterator = other.iterator();
 
-            if (successorParent == current) {
-                current.right = successor.right;
-            } else {
-                successorParent.left = successor.right;
+        while (iterator.hasNext()) {
+            if (!Objects.equals(iterator.next(), otherIterator.next())) {
+                return false;
             }
+        }
 
-            current.value = successor.value;
-        } else {
-            final Node child;
+        return true;
+    }
 
-            if (hasLeft) {
-                child = current.left;
-            } else {
-                child = current.right;
-            }
+    /**
+     * Returns the hash code value for this tree, which is the polynomial hash of
+     * the hash codes of its elements in ascending order. Equal trees have equal
+     * hash codes regardless of their shapes. The hash is maintained for every
+     * sub-tree as the tree changes.
+     * 
+     * This operation should be O(1).
+     * 
+     * @return the hash code value for this tree
+     */
+    @Override
+    public int hashCode() {
+        final Node node = root;
 
-            if (parent == null) {
-                root = child;
-            } else if (current == parent.left) {
-                parent.left = child;
-            } else {
-                parent.right = child;
-            }
+        if (node == null) {
+            return 0;
         }
 
-        stack.saveChanges();
-
-        version++;
-
-        return true;
+        return node.hash;
     }
 
     /**
-     * Removes all of the elements from this set.
+     * Returns a string representation of this tree.
      * 
-     * The set will be empty after this call returns.
+     * The string representation consists of a list of the tree's elements in the
+     * order they are returned by its iterator (inorder traversal), enclosed in
+     * square brackets ("[]"). Adjacent elements are separated by the characters ",
+     * "
+     * (comma and space). Elements are converted to strings as by
+     * {@code String.valueOf(Object)}.
      * 
-     * This operation should be O(1).
+     * This operation should be O(N).
+     * 
+     * @return a string representation of this collection
      */
-    public void clear() {
-        root = null;
-        version++;
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder();
+
+        try {
+            appendTo(result);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+
+        return result.toString();
     }
 
     /**
-     * Returns true if this set contains the specified element.
-     * 
-     * More formally, returns true if and only if this set contains an element e
-     * such that {@code Objects.equals(o, e)}.
+     * Appends the string representation of this tree, as returned by
+     * {@link #toString()}, to the specified destination. Elements are appended
+     * one at a time as they are visited, so the representation is never held in
+     * memory at once; destinations such as writers should be buffered.
      * 
-     * This operation should be O(H).
+     * This operation should be O(N) and uses O(H) extra space.
      * 
-     * @param o object to be checked for containment in this set
-     * @return {@code true} if this set contains the specified element
-     * @throws ClassCastException   if the specified object cannot be compared with
-     *                              the elements currently in the set
-     * @throws NullPointerException if the specified element is null and this set
-     *                              uses natural ordering, or its comparator does
-     *                              not permit null elements
+     * @param appendable the destination to which the representation is appended
+     * @throws IOException          if an I/O error occurs
+     * @throws NullPointerException if the specified destination is null
      */
-    public boolean contains(Object o) {
-        if (o == null) {
-            throw new NullPointerException("Argument cannot be null. Argument name: o.");
+    public void appendTo(Appendable appendable) throws IOException {
+        if (appendable == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: appendable.");
         }
 
-        final E e = (E) o;
-        Node current = root;
+        final Iterator<E> iterator = iterator();
 
-        while (current != null) {
-            int comparison = e.compareTo(current.value);
+        boolean hasNext = iterator.hasNext();
 
-            if (comparison == 0) {
-                return true;
-            } else if (comparison < 0) {
-                current = current.left;
-            } else if (comparison > 0) {
-                current = current.right;
+        appendable.append('[');
+
+        while (hasNext) {
+            appendable.append(String.valueOf(iterator.next()));
+
+            hasNext = iterator.hasNext();
+
+            if (hasNext) {
+                appendable.append(", ");
             }
         }
 
-        return false;
+        appendable.append(']');
     }
 
     /**
-     * Returns the number of elements in this tree.
+     * Produces tree like string representation of this tree.
      * 
-     * This operation should be O(1).
+     * Returns a string representation of this tree in a tree-like format. The
+     * string representation consists of a tree-like representation of this tree.
+     * Each node is shown in its own line with the indentation showing the depth of
+     * the node in this tree. The root is printed on the first line, followed by its
+     * left subtree, followed by its right subtree.
      * 
-     * @return the number of elements in this tree
+     * This operation should be O(N).
+     * 
+     * @return a string containing tree-like representation of this tree
      */
-    public int size() {
-        if (root == null) {
-            return 0;
-        } else {
-            return root.count;
+    public String toStringTreeFormat() {
+        final StringBuilder result = new StringBuilder();
+
+        try {
+            appendTreeFormatTo(result);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
         }
+
+        return result.toString();
     }
 
     /**
-     * Returns true if this set contains no elements.
+     * Appends the tree-like representation of this tree, as returned by
+     * {@link #toStringTreeFormat()}, to the specified destination. Each line is
+     * appended as its node is visited, so the representation is never held in
+     * memory at once; destinations such as writers should be buffered.
      * 
-     * This operation should be O(1).
+     * This operation should be O(N) and uses O(H) extra space.
      * 
-     * @return {@code true} if this set contains no elements
+     * @param appendable the destination to which the representation is appended
+     * @throws IOException          if an I/O error occurs
+     * @throws NullPointerException if the specified destination is null
      */
-    public boolean isEmpty() {
-        return root == null;
+    public void appendTreeFormatTo(Appendable appendable) throws IOException {
+        appendTreeFormatTo(appendable, Integer.MAX_VALUE, Integer.MAX_VALUE);
     }
 
     /**
-     * Returns the height of this tree.
+     * Appends a truncated tree-like representation of this tree to the specified
+     * destination. The representation is the same as returned by
+     * {@link #toStringTreeFormat()}, except that the children of the nodes at the
+     * greatest depth are replaced by a single line containing "..." whenever
+     * either child is present, and that once the given number of nodes has been
+     * appended, any remaining lines are replaced by a single line containing
+     * "...".
      * 
-     * The height of a leaf is 1. The height of the tree is the height of its root
-     * node.
+     * This operation should be O(min(N, M)) for a budget of M nodes and uses O(H)
+     * extra space.
      * 
-     * @return the height of this tree or zero if the tree is empty
+     * @param appendable the destination to which the representation is appended
+     * @param maxDepth   the greatest depth of the nodes to append, where the depth
+     *                   of the root is 0
+     * @param maxNodes   the greatest number of nodes to append
+     * @throws IllegalArgumentException if either limit is negative
+     * @throws IOException              if an I/O error occurs
+     * @throws NullPointerException     if the specified destination is null
      */
-    public int height() {
+    public void appendTreeFormatTo(Appendable appendable, int maxDepth, int maxNodes) throws IOException {
+        if (appendable == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: appendable.");
+        }
+
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Argument is out of range. Argument name: maxDepth.");
+        }
+
+        if (maxNodes < 0) {
+            throw new IllegalArgumentException("Argument is out of range. Argument name: maxNodes.");
+        }
+
         if (root == null) {
-            return 0;
-        } else {
-            return root.height;
+            appendable.append("null");
+
+            return;
         }
-    }
 
-    /**
-     * Returns an iterator over the elements in this tree in ascending order.
-     * 
-     * This operation should be O(N).
-     * 
-     * @return an iterator over the elements in this set in ascending order
-     */
-    public Iterator<E> iterator() {
-        return new BSTSequentialIterator();
+        if (maxNodes == 0) {
+            appendable.append("...");
+
+            return;
+        }
+
+        // Each level holds at most one pending right side, in addition to the left
+        // side of the deepest node, so the stack stays within O(H)
+
+        final int bufferSize = root.height + 1;
+        final Object[] nodes = new Object[bufferSize];
+        final int[] levels = new int[bufferSize];
+
+        int index = 1;
+        int count = 0;
+
+        // Begin with the root node
+
+        nodes[0] = root;
+
+        while (index > 0) {
+            index--;
+
+            final Object item = nodes[index];
+
+            int level = levels[index];
+
+            nodes[index] = null;
+
+            if (level > 0) {
+                for (int indent = 0; indent < level - 1; indent++) {
+                    appendable.append("   ");
+                }
+
+                appendable.append("|--");
+            }
+
+            if (item == nodes) {
+                // The array itself marks the elided children of a node
+
+                appendable.append("...");
+            } else if (item == null) {
+                appendable.append("null");
+            } else {
+                final Node node = asNode(item);
+
+                appendable.append(String.valueOf(node.value));
+
+                count++;
+                level++;
+
+                if (level <= maxDepth) {
+                    nodes[index] = node.right;
+                    levels[index] = level;
+                    index++;
+                    nodes[index] = node.left;
+                    levels[index] = level;
+                    index++;
+                } else if (node.left != null || node.right != null) {
+                    nodes[index] = nodes;
+                    levels[index] = level;
+                    index++;
+                }
+
+                if (count == maxNodes && index > 0) {
+                    appendable.append('\n');
+                    appendable.append("...");
+
+                    return;
+                }
+            }
+
+            if (index > 0) {
+                appendable.append('\n');
+            }
+        }
     }
 
     /**
-     * Returns an iterator over the elements in this tree in order of the preorder
-     * traversal.
-     * 
-     * This operation should be O(N).
+     * Updates the height, count, content hash and summary of a node based on its
+     * children.
      * 
-     * @return an iterator over the elements in this tree in order of the preorder
-     *         traversal
+     * @param node the node to update
      */
-    public Iterator<E> preorderIterator() {
-        return new BSTPreorderIterator();
+    private void update(Node node) {
+        final boolean hasLeft = node.left != null;
+        final boolean hasRight = node.right != null;
+
+        if (hasLeft && hasRight) {
+            node.height = Math.max(node.left.height, node.right.height) + 1;
+            node.count = node.left.count + node.right.count + 1;
+        } else if (hasLeft) {
+            node.height = node.left.height + 1;
+            node.count = node.left.count + 1;
+        } else if (hasRight) {
+            node.height = node.right.height + 1;
+            node.count = node.right.count + 1;
+        } else {
+            node.height = 1;
+            node.count = 1;
+        }
+
+        // The content hash is the polynomial hash of the hash codes of the elements
+        // in ascending order, so the hash of a sequence is composed from the hashes of
+        // its parts and the multiplier raised to the length of each part
+
+        int hash = 0;
+        int power = 1;
+
+        if (hasLeft) {
+            hash = node.left.hash;
+            power = node.left.power;
+        }
+
+        hash = hash * HASH_MULTIPLIER + node.value.hashCode();
+        power *= HASH_MULTIPLIER;
+
+        if (hasRight) {
+            hash = hash * node.right.power + node.right.hash;
+            power *= node.right.power;
+        }
+
+        node.hash = hash;
+        node.power = power;
+        node.summary = summarize(node);
     }
 
     /**
-     * Returns an iterator over the elements in this tree in order of the postorder
-     * traversal.
-     * 
-     * This operation should be O(N).
+     * Finds the index of the first occurrence of each distinct element of a
+     * sequence.
      * 
-     * @return an iterator over the elements in this tree in order of the postorder
-     *         traversal
+     * @param sequence the elements, in insertion order
+     * @param array    the sorted distinct elements
+     * @param length   the number of distinct elements
+     * @return the index in the sequence of the first occurrence of each distinct
+     *         element
      */
-    public Iterator<E> postorderIterator() {
-        return new BSTPostorderIterator();
+    private int[] prioritize(E[] sequence, E[] array, int length) {
+        final int[] priorities = new int[length];
+
+        for (int i = 0; i < length; i++) {
+            priorities[i] = -1;
+        }
+
+        // Visit the sequence in order so that each element keeps the index of its
+        // first occurrence
+
+        for (int i = 0; i < sequence.length; i++) {
+            final int index = indexOf(array, length, sequence[i]);
+
+            if (priorities[index] < 0) {
+                priorities[index] = i;
+            }
+        }
+
+        return priorities;
     }
 
     /**
-     * Returns the element at the specified position in this tree.
-     * 
-     * The order of the indexed elements is the same as provided by this tree's
-     * iterator. The indexing is zero based (i.e., the smallest element in this tree
-     * is at index 0 and the largest one is at index {@code size()}-1).
-     * 
-     * This operation should be O(H).
+     * Builds the tree produced by adding each element of a sequence, in order, to
+     * an empty tree, from the sorted distinct elements of the sequence.
      * 
-     * @param index index of the element to return
-     * @return the element at the specified position in this tree
-     * @throws IndexOutOfBoundsException if the index is out of range
-     *                                   ({@code index < 0 || index >= size()})
+     * @param array      the sorted distinct elements, each the first occurrence
+     *                   of its value in the sequence
+     * @param priorities the index in the sequence of the first occurrence of each
+     *                   distinct element
+     * @param length     the number of distinct elements
+     * @return the root of the tree, or {@code null} if the sequence is empty
      */
-    public E get(int index) {
-        if (index < 0 || root == null || index >= root.count) {
-            throw new IndexOutOfBoundsException("Argument is out of range. Argument name: index.");
-        }
+    private Node buildInOrder(E[] array, int[] priorities, int length) {
+        // Keep the right side of the tree built so far on a stack; each new element
+        // becomes the right child of the last node on that side with an earlier
+        // priority, and adopts the nodes with later priorities that it displaces
+        // as its left sub-tree. A displaced node never changes again, so it is
+        // updated from bottom up as soon as it leaves the stack
 
-        Node current = root;
+        final Object[] nodes = new Object[length];
+        final int[] indices = new int[length];
 
-        while (current != null) {
-            final int leftCount;
+        int count = 0;
 
-            if (current.left == null) {
-                leftCount = 0;
-            } else {
-                leftCount = current.left.count;
+        for (int i = 0; i < length; i++) {
+            final Node node = new Node(array[i]);
+
+            Node last = null;
+
+            while (count > 0 && priorities[indices[count - 1]] > priorities[i]) {
+                count--;
+                last = asNode(nodes[count]);
+                nodes[count] = null;
+
+                update(last);
             }
 
-            if (index < leftCount) {
-                current = current.left;
-            } else if (index > leftCount) {
-                current = current.right;
-                index -= leftCount + 1;
-            } else {
-                return current.value;
+            node.left = last;
+
+            if (count > 0) {
+                asNode(nodes[count - 1]).right = node;
             }
+
+            nodes[count] = node;
+            indices[count] = i;
+            count++;
         }
 
-        return null;
+        Node result = null;
+
+        while (count > 0) {
+            count--;
+            result = asNode(nodes[count]);
+            nodes[count] = null;
+
+            update(result);
+        }
+
+        return result;
     }
 
     /**
-     * Returns the least element in this tree greater than or equal to the given
-     * element, or {@code null} if there is no such element.
+     * Builds a balanced tree from a sorted array of distinct elements. Large trees
+     * build their left and right sides concurrently.
      * 
-     * This operation should be O(H).
+     * @param array  the sorted distinct elements
+     * @param length the number of distinct elements
+     * @return the root of the tree, or {@code null} if the array is empty
+     */
+    private Node build(E[] array, int length) {
+        if (length > BUILD_THRESHOLD) {
+            return new BSTBuildTask(array, 0, length - 1).invoke();
+        }
+
+        return build(array, 0, length - 1);
+    }
+
+    /**
+     * Builds a balanced sub-tree from a range of a sorted array of distinct
+     * elements, whose median becomes the root of the sub-tree. Each node is
+     * created once its children are complete, so heights, counts and summaries
+     * are computed in a single bottom-up pass.
      * 
-     * @param e the value to match
-     * @return the least element greater than or equal to {@code e}, or {@code null}
-     *         if there is no such element
-     * @throws ClassCastException   if the specified element cannot be compared with
-     *                              the elements currently in the set
-     * @throws NullPointerException if the specified element is null
+     * @param array the sorted array of distinct elements
+     * @param left  the first index of the range
+     * @param right the last index of the range
+     * @return the root of the sub-tree, or {@code null} if the range is empty
      */
-    public E ceiling(E e) {
-        if (e == null) {
-            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+    private Node build(E[] array, int left, int right) {
+        if (left > right) {
+            return null;
         }
 
-        Node ceiling = null;
-        Node current = root;
+        // Use two index arrays and one index to simulate a recursive function stack
+        // trace; a negative left index marks a range whose sides are complete, and the
+        // roots of those sides are kept on a separate stack of finished sub-trees.
+        // Each level of the tree holds at most one pending range and one finished
+        // sub-tree per side, so both stacks stay within O(logN)
 
-        while (current != null) {
-            final int comparison = e.compareTo(current.value);
+        final int height = Integer.SIZE - Integer.numberOfLeadingZeros(right - left + 1);
+        final int[] lefts = new int[2 * height + 1];
+        final int[] rights = new int[2 * height + 1];
+        final Object[] nodes = new Object[height + 1];
 
-            if (comparison <= 0) {
-                ceiling = current;
-                current = current.left;
-            } else {
-                current = current.right;
+        int index = 1;
+        int nodeIndex = 0;
+
+        lefts[0] = left;
+        rights[0] = right;
+
+        while (index > 0) {
+            index--;
+
+            final int first = lefts[index];
+            final int last = rights[index];
+
+            if (first >= 0) {
+                if (first > last) {
+                    nodes[nodeIndex] = null;
+                    nodeIndex++;
+
+                    continue;
+                }
+
+                final int center = (first + last) / 2;
+
+                // Revisit this range after both of its sides (stack is a last-in,
+                // first-out collection)
+
+                lefts[index] = ~first;
+                rights[index] = last;
+                index++;
+                lefts[index] = center + 1;
+                rights[index] = last;
+                index++;
+                lefts[index] = first;
+                rights[index] = center - 1;
+                index++;
+
+                continue;
             }
-        }
 
-        if (ceiling == null) {
-            return null;
-        } else {
-            return ceiling.value;
+            final Node node = new Node(array[(~first + last) / 2]);
+
+            nodeIndex--;
+            node.right = asNode(nodes[nodeIndex]);
+            nodeIndex--;
+            node.left = asNode(nodes[nodeIndex]);
+            nodes[nodeIndex] = node;
+            nodes[nodeIndex + 1] = null;
+            nodeIndex++;
+
+            update(node);
         }
+
+        return asNode(nodes[0]);
     }
 
     /**
-     * Returns the greatest element in this set less than or equal to the given
-     * element, or {@code null} if there is no such element.
-     * 
-     * This operation should be O(H).
+     * Restores the AVL balance of a node whose sides differ in height by at most
+     * two, and whose sides are themselves balanced, using one or two rotations.
      * 
-     * @param e the value to match
-     * @return the greatest element less than or equal to {@code e}, or {@code null}
-     *         if there is no such element
-     * @throws ClassCastException   if the specified element cannot be compared with
-     *                              the elements currently in the set
-     * @throws NullPointerException if the specified element is null
+     * @param node the node to balance, which may be modified, and whose height
+     *             and count are up-to-date
+     * @return the root of the balanced sub-tree
      */
-    public E floor(E e) {
-        if (e == null) {
-            throw new NullPointerException("Argument cannot be null. Argument name: e.");
-        }
+    private Node balance(Node node) {
+        final int difference = heightOf(node.left) - heightOf(node.right);
 
-        Node floor = null;
-        Node current = root;
+        if (difference > 1) {
+            if (heightOf(node.left.left) < heightOf(node.left.right)) {
+                node.left = rotateLeft(copyOnWrite(node.left));
+            }
 
-        while (current != null) {
-            final int comparison = e.compareTo(current.value);
+            return rotateRight(node);
+        }
 
-            if (comparison >= 0) {
-                floor = current;
-                current = current.right;
-            } else {
-                current = current.left;
+        if (difference < -1) {
+            if (heightOf(node.right.right) < heightOf(node.right.left)) {
+                node.right = rotateRight(copyOnWrite(node.right));
             }
-        }
 
-        if (floor == null) {
-            return null;
-        } else {
-            return floor.value;
+            return rotateLeft(node);
         }
+
+        return node;
     }
 
     /**
-     * Returns the first (lowest) element currently in this tree.
-     * 
-     * This operation should be O(H).
+     * Rotates a sub-tree to the left, so that the right child of its root becomes
+     * its new root.
      * 
-     * @return the first (lowest) element currently in this tree
-     * @throws NoSuchElementException if this set is empty
+     * @param node the root of the sub-tree, which may be modified
+     * @return the new root of the sub-tree
      */
-    public E first() {
-        if (root == null) {
-            throw new NoSuchElementException("Cannot retrieve the first element of an empty tree.");
-        }
+    private Node rotateLeft(Node node) {
+        final Node result = copyOnWrite(node.right);
 
-        Node current = root;
-        
-        while (current.left != null) {
-            current = current.left;
-        }
+        node.right = result.left;
+        result.left = node;
 
-        return current.value;
+        update(node);
+        update(result);
+
+        return result;
     }
 
     /**
-     * Returns the last (highest) element currently in this tree.
+     * Rotates a sub-tree to the right, so that the left child of its root becomes
+     * its new root.
      * 
-     * This operation should be O(H).
+     * @param node the root of the sub-tree, which may be modified
+     * @return the new root of the sub-tree
+     */
+    private Node rotateRight(Node node) {
+        final Node result = copyOnWrite(node.left);
+
+        node.left = result.right;
+        result.right = node;
+
+        update(node);
+        update(result);
+
+        return result;
+    }
+
+    /**
+     * Searches for every key in a sorted array in a single traversal. Each
+     * pending sub-tree is visited with the range of keys that reach it and the
+     * nearest ancestors bounding its values, which are the floor and the ceiling
+     * of every key that falls off the tree within it.
      * 
-     * @return the last (highest) element currently in this tree
-     * @throws NoSuchElementException if this set is empty
+     * @param keys     the values to match, sorted in ascending order
+     * @param found    the array into which the presence of each key is stored, or
+     *                 {@code null}
+     * @param floors   the array into which the floor of each key is stored, or
+     *                 {@code null}
+     * @param ceilings the array into which the ceiling of each key is stored, or
+     *                 {@code null}
      */
-    public E last() {
-        if (root == null) {
-            throw new NoSuchElementException("Cannot retrieve the last element of an empty tree.");
+    private void search(E[] keys, boolean[] found, E[] floors, E[] ceilings) {
+        if (keys.length == 0) {
+            return;
         }
 
-        Node current = root;
+        // Each frame holds a sub-tree, its lower and upper bounding ancestors, and
+        // the range of keys that reach it; at most one sub-tree per level, including
+        // the empty sub-trees below the leaves, is pending at once
 
-        while (current.right != null) {
-            current = current.right;
-        }
+        final int capacity = heightOf(root) + 2;
+        final Object[] nodes = new Object[3 * capacity];
+        final int[] ranges = new int[2 * capacity];
 
-        return current.value;
+        int index = 1;
+
+        nodes[0] = root;
+        ranges[0] = 0;
+        ranges[1] = keys.length;
+
+        while (index > 0) {
+            index--;
+
+            final Node node = asNode(nodes[3 * index]);
+            final Node lower = asNode(nodes[3 * index + 1]);
+            final Node upper = asNode(nodes[3 * index + 2]);
+            final int first = ranges[2 * index];
+            final int last = ranges[2 * index + 1];
+
+            nodes[3 * index] = null;
+            nodes[3 * index + 1] = null;
+            nodes[3 * index + 2] = null;
+
+            if (node != null && last - first == 1) {
+                // A single key has nothing left to share, so it descends alone
+
+                search(keys[first], first, node, lower, upper, found, floors, ceilings);
+
+                continue;
+            }
+
+            if (node == null) {
+                for (int i = first; i < last; i++) {
+                    if (found != null) {
+                        found[i] = false;
+                    }
+
+                    if (floors != null) {
+                        if (lower == null) {
+                            floors[i] = null;
+                        } else {
+                            floors[i] = lower.value;
+                        }
+                    }
+
+                    if (ceilings != null) {
+                        if (upper == null) {
+                            ceilings[i] = null;
+                        } else {
+                            ceilings[i] = upper.value;
+                        }
+                    }
+                }
+
+                continue;
+            }
+
+            final int equal = bound(keys, first, last, node.value);
+
+            int greater = equal;
+
+            while (greater < last && keys[greater].compareTo(node.value) == 0) {
+                greater++;
+            }
+
+            for (int i = equal; i < greater; i++) {
+                if (found != null) {
+                    found[i] = true;
+                }
+
+                if (floors != null) {
+                    floors[i] = node.value;
+                }
+
+                if (ceilings != null) {
+                    ceilings[i] = node.value;
+                }
+            }
+
+            if (greater < last) {
+                nodes[3 * index] = node.right;
+                nodes[3 * index + 1] = node;
+                nodes[3 * index + 2] = upper;
+                ranges[2 * index] = greater;
+                ranges[2 * index + 1] = last;
+                index++;
+            }
+
+            if (first < equal) {
+                nodes[3 * index] = node.left;
+                nodes[3 * index + 1] = lower;
+                nodes[3 * index + 2] = node;
+                ranges[2 * index] = first;
+                ranges[2 * index + 1] = equal;
+                index++;
+            }
+        }
     }
 
     /**
-     * Returns the greatest element in this set strictly less than the given
-     * element, or {@code null} if there is no such element.
-     * 
-     * This operation should be O(H).
+     * Ensures that an array of keys for a batch search is sorted and has no null
+     * elements.
      * 
-     * @param e the value to match
-     * @return the greatest element less than {@code e}, or {@code null} if there is
-     *         no such element
-     * @throws ClassCastException   if the specified element cannot be compared with
-     *                              the elements currently in the set
-     * @throws NullPointerException if the specified element is null
+     * @param keys   the keys
+     * @param length the length of the array into which results are stored
+     * @throws ClassCastException       if the keys cannot be compared with each
+     *                                  other
+     * @throws IllegalArgumentException if the keys are not sorted, or if the
+     *                                  results array is shorter than the keys
+     * @throws NullPointerException     if the keys are null or contain null
+     *                                  elements
      */
-    public E lower(E e) {
-        if (e == null) {
-            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+    private static <E extends Comparable<E>> void checkKeys(E[] keys, int length) {
+        if (keys == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: keys.");
         }
 
-        Node lower = null;
-        Node current = root;
+        if (length < keys.length) {
+            throw new IllegalArgumentException("Argument is out of range. Argument name: results.");
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                throw new NullPointerException("Argument cannot contain null elements. Argument name: keys.");
+            }
+
+            if (i > 0 && keys[i - 1].compareTo(keys[i]) > 0) {
+                throw new IllegalArgumentException(
+                        "Argument must be sorted in ascending order. Argument name: keys.");
+            }
+        }
+    }
+
+    /**
+     * Searches for a single key within a sub-tree. This method is used within a
+     * broader batch search algorithm.
+     * 
+     * @param key      the value to match
+     * @param index    the index at which the results for the key are stored
+     * @param node     the root of the sub-tree
+     * @param lower    the nearest ancestor of the sub-tree less than its elements,
+     *                 or {@code null}
+     * @param upper    the nearest ancestor of the sub-tree greater than its
+     *                 elements, or {@code null}
+     * @param found    the array into which the presence of the key is stored, or
+     *                 {@code null}
+     * @param floors   the array into which the floor of the key is stored, or
+     *                 {@code null}
+     * @param ceilings the array into which the ceiling of the key is stored, or
+     *                 {@code null}
+     */
+    private void search(E key, int index, Node node, Node lower, Node upper, boolean[] found, E[] floors,
+            E[] ceilings) {
+        Node current = node;
 
         while (current != null) {
-            final int comparison = e.compareTo(current.value);
+            final int comparison = key.compareTo(current.value);
 
-            if (comparison > 0) {
+            if (comparison == 0) {
+                lower = current;
+                upper = current;
+
+                break;
+            }
+
+            if (comparison < 0) {
+                upper = current;
+                current = current.left;
+            } else {
                 lower = current;
                 current = current.right;
+            }
+        }
+
+        if (found != null) {
+            found[index] = current != null;
+        }
+
+        if (floors != null) {
+            if (lower == null) {
+                floors[index] = null;
             } else {
-                current = current.left;
+                floors[index] = lower.value;
             }
         }
 
-        if (lower == null) {
-            return null;
-        } else {
-            return lower.value;
+        if (ceilings != null) {
+            if (upper == null) {
+                ceilings[index] = null;
+            } else {
+                ceilings[index] = upper.value;
+            }
         }
     }
 
     /**
-     * Returns the least element in this tree strictly greater than the given
-     * element, or {@code null} if there is no such element.
-     * 
-     * This operation should be O(H).
+     * Finds the first index within a range of a sorted array of keys whose key
+     * is at least a given value, using the BinarySearch algorithm.
      * 
-     * @param e the value to match
-     * @return the least element greater than {@code e}, or {@code null} if there is
-     *         no such element
-     * @throws ClassCastException   if the specified element cannot be compared with
-     *                              the elements currently in the set
-     * @throws NullPointerException if the specified element is null
+     * @param keys  the sorted keys
+     * @param left  the first index of the range (inclusive)
+     * @param right the last index of the range (exclusive)
+     * @param e     the value
+     * @return the index of the first key greater than or equal to the value, or
+     *         {@code right} if there is no such key
      */
-    public E higher(E e) {
-        if (e == null) {
-            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+    private static <E extends Comparable<E>> int bound(E[] keys, int left, int right, E e) {
+        while (left < right) {
+            final int center = (left + right) >>> 1;
+
+            if (keys[center].compareTo(e) < 0) {
+                left = center + 1;
+            } else {
+                right = center;
+            }
         }
 
-        Node higher = null;
-        Node current = root;
+        return left;
+    }
 
-        while (current != null) {
-            final int comparison = e.compareTo(current.value);
+    /**
+     * Finds the first index within a range of a sorted array of indices whose
+     * value is at least a given value, using the BinarySearch algorithm.
+     * 
+     * @param indices the sorted indices
+     * @param left    the first index of the range (inclusive)
+     * @param right   the last index of the range (exclusive)
+     * @param value   the value
+     * @return the index of the first value greater than or equal to the given
+     *         value, or {@code right} if there is no such value
+     */
+    private static int bound(int[] indices, int left, int right, int value) {
+        while (left < right) {
+            final int center = (left + right) >>> 1;
 
-            if (comparison < 0) {
-                higher = current;
-                current = current.left;
+            if (indices[center] < value) {
+                left = center + 1;
             } else {
-                current = current.right;
+                right = center;
             }
         }
 
-        if (higher == null) {
-            return null;
-        } else {
-            return higher.value;
-        }
+        return left;
     }
 
     /**
-     * Compares the specified object with this tree for equality.
-     * 
-     * Returns {@code true} if the given object is also a tree, the two trees have
-     * the same size, and every member of the given tree is contained in this tree.
-     * 
-     * This operation should be O(N).
+     * Gets a node that may be modified in place of the given node: the node
+     * itself, or a copy of the node if this tree is persistent.
      * 
-     * @param obj object to be compared for equality with this tree
-     * @return {@code true} if the specified object is equal to this tree
+     * @param node the node
+     * @return the node, or a copy of the node
      */
-    @Override
-    public boolean equals(Object obj) {
-        if (obj == this) {
-            return true;
-        }
-
-        if (!(obj instanceof BST)) {
-            return false;
+    private Node copyOnWrite(Node node) {
+        if (persistent) {
+            return new Node(node);
         }
 
-        final BST other = (BST) obj;
+        return node;
+    }
 
-        if (size() != other.size()) {
-            return false;
+    /**
+     * Ensures that this tree is not a snapshot.
+     * 
+     * @throws UnsupportedOperationException if this tree is a snapshot
+     */
+    private void checkWritable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Cannot modify a snapshot of a tree.");
         }
+    }
 
-        Iterator<E> iterator = iterator();
-        Iterator otherIterator = other.iterator();
+    /**
+     * Ensures that both endpoints of a range are present and in order.
+     * 
+     * @param from the low endpoint of the range
+     * @param to   the high endpoint of the range
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     * @throws NullPointerException     if either endpoint is null
+     */
+    private static <E extends Comparable<E>> void checkRange(E from, E to) {
+        if (from == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: from.");
+        }
 
-        while (iterator.hasNext()) {
-            if (!Objects.equals(iterator.next(), otherIterator.next())) {
-                return false;
-            }
+        if (to == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: to.");
         }
 
-        return true;
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Argument is out of range. Argument name: from.");
+        }
     }
 
     /**
-     * Returns a string representation of this tree.
-     * 
-     * The string representation consists of a list of the tree's elements in the
-     * order they are returned by its iterator (inorder traversal), enclosed in
-     * square brackets ("[]"). Adjacent elements are separated by the characters ",
-     * "
-     * (comma and space). Elements are converted to strings as by
-     * {@code String.valueOf(Object)}.
-     * 
-     * This operation should be O(N).
+     * Determines whether an element lies below the low endpoint (inclusive) of a
+     * range.
      * 
-     * @return a string representation of this collection
+     * @param e    the element
+     * @param from the low endpoint, or {@code null} if the range has no low
+     *             endpoint
+     * @return {@code true} if the element is less than the low endpoint;
+     *         otherwise, {@code false}
      */
-    @Override
-    public String toString() {
-        final StringBuilder result = new StringBuilder("[");
-        final Iterator<E> iterator = iterator();
+    private static <E extends Comparable<E>> boolean isTooLow(E e, E from) {
+        return from != null && e.compareTo(from) < 0;
+    }
 
-        boolean hasNext = iterator.hasNext();
+    /**
+     * Determines whether an element lies at or above the high endpoint
+     * (exclusive) of a range.
+     * 
+     * @param e  the element
+     * @param to the high endpoint, or {@code null} if the range has no high
+     *           endpoint
+     * @return {@code true} if the element is greater than or equal to the high
+     *         endpoint; otherwise, {@code false}
+     */
+    private static <E extends Comparable<E>> boolean isTooHigh(E e, E to) {
+        return to != null && e.compareTo(to) >= 0;
+    }
 
-        while (hasNext) {
-            result.append(iterator.next());
+    /**
+     * Gets the number of elements in a sub-tree.
+     * 
+     * @param node the root of the sub-tree, or {@code null}
+     * @return the number of elements in the sub-tree, or 0 if it is empty
+     */
+    private int countOf(Node node) {
+        if (node == null) {
+            return 0;
+        }
 
-            hasNext = iterator.hasNext();
+        return node.count;
+    }
 
-            if (hasNext) {
-                result.append(", ");
-            }
+    /**
+     * Gets the height of a sub-tree.
+     * 
+     * @param node the root of the sub-tree, or {@code null}
+     * @return the height of the sub-tree, or 0 if it is empty
+     */
+    private int heightOf(Node node) {
+        if (node == null) {
+            return 0;
         }
 
-        return result.append(']').toString();
+        return node.height;
     }
 
     /**
-     * Produces tree like string representation of this tree.
+     * Casts an item of an untyped buffer of nodes to a node. Such buffers are
+     * arrays of objects because arrays of a generic inner class cannot be
+     * created.
      * 
-     * Returns a string representation of this tree in a tree-like format. The
-     * string representation consists of a tree-like representation of this tree.
-     * Each node is shown in its own line with the indentation showing the depth of
-     * the node in this tree. The root is printed on the first line, followed by its
-     * left subtree, followed by its right subtree.
+     * @param item the item, or {@code null}
+     * @return the node, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    private Node asNode(Object item) {
+        return (Node) item;
+    }
+
+    /**
+     * Creates an array for elements of this tree.
      * 
-     * This operation should be O(N).
+     * @param length the length of the array
+     * @return the array
+     */
+    @SuppressWarnings("unchecked")
+    private E[] newArray(int length) {
+        return (E[]) new Comparable<?>[length];
+    }
+
+    /**
+     * Sorts an array of comparable values using the IntroSort algorithm and moves
+     * its distinct elements to its beginning. Arrays longer than the parallel
+     * threshold sort independent partitions concurrently.
      * 
-     * @return a string containing tree-like representation of this tree
+     * @param array the values to sort
+     * @return the number of distinct elements
      */
-    public String toStringTreeFormat() {
-        if (root == null) {
-            return "null";
+    private int sort(E[] array) {
+        if (array.length == 0) {
+            return 0;
         }
 
-        final int bufferSize = root.count + 1;
-        final Object[] nodes = new Object[bufferSize];
-        final int[] levels = new int[bufferSize];
-        final StringBuilder result = new StringBuilder();
-
-        int index = 1;
-
-        // Begin with the root node
+        final int depth = 2 * (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(array.length));
 
-        nodes[0] = root;
+        if (array.length > PARALLEL_SORT_THRESHOLD) {
+            new BSTSortTask(array, 0, array.length - 1, depth).invoke();
+        } else {
+            sort(array, 0, array.length - 1, depth);
+        }
 
-        while (index > 0) {
-            index--;
+        return distinct(array);
+    }
 
-            final Node node = (Node) nodes[index];
+    /**
+     * Sorts a range of an array using the IntroSort algorithm: a QuickSort with
+     * three-way partitioning, so that runs of equal elements are never examined
+     * again, which switches to HeapSort once the given partitioning depth is
+     * exhausted and to InsertionSort for short ranges. This operation is
+     * guaranteed to be O(NlogN).
+     * 
+     * @param array the values to sort
+     * @param left  the first index to sort
+     * @param right the last index to sort
+     * @param depth the number of partitioning levels remaining before HeapSort
+     *              is used instead
+     */
+    private void sort(E[] array, int left, int right, int depth) {
+        // Use three index arrays and one index to simulate a recursive function stack
+        // trace; the larger side of each partition is deferred to the stack and the
+        // smaller side is sorted first, so the stack never holds more than logN ranges
+
+        final int[] lefts = new int[Integer.SIZE];
+        final int[] rights = new int[Integer.SIZE];
+        final int[] depths = new int[Integer.SIZE];
+
+        int index = 0;
+
+        while (true) {
+            if (right - left < INSERTION_SORT_THRESHOLD) {
+                insertionSort(array, left, right);
+            } else if (depth == 0) {
+                heapSort(array, left, right);
+            } else {
+                final int lower = partition(array, left, right);
+                final int upper = skipEqual(array, lower, right);
 
-            int level = levels[index];
+                depth--;
 
-            if (level > 0) {
-                for (int indent = 0; indent < level - 1; indent++) {
-                    result.append("   ");
+                if (lower - left < right - upper) {
+                    lefts[index] = upper + 1;
+                    rights[index] = right;
+                    depths[index] = depth;
+                    right = lower - 1;
+                } else {
+                    lefts[index] = left;
+                    rights[index] = lower - 1;
+                    depths[index] = depth;
+                    left = upper + 1;
                 }
 
-                result.append("|--");
-            }
-
-            if (node == null) {
-                result.append("null");
-            } else {
-                level++;
-                nodes[index] = node.right;
-                levels[index] = level;
-                index++;
-                nodes[index] = node.left;
-                levels[index] = level;
                 index++;
 
-                result.append(node.value);
+                continue;
             }
 
-            if (index > 0) {
-                result.append('\n');
+            if (index == 0) {
+                return;
             }
-        }
 
-        return result.toString();
+            index--;
+            left = lefts[index];
+            right = rights[index];
+            depth = depths[index];
+        }
     }
 
     /**
-     * Sorts an array of comparable values using the QuickSort algorithm.
+     * Finds the index of an element in a sorted array of distinct elements using
+     * the BinarySearch algorithm.
      * 
-     * @param array the values to sort
+     * @param array  the sorted distinct values
+     * @param length the number of values
+     * @param e      the value to find, which must be present
+     * @return the index of the value
      */
-    private void sort(E[] array) {
-        BSTIndexNode head = new BSTIndexNode();
-
-        head.right = array.length - 1;
+    private int indexOf(E[] array, int length, E e) {
+        int left = 0;
+        int right = length - 1;
 
-        while (head != null) {
-            final int left = head.left;
-            final int right = head.right;
-            final int partition = partition(array, left, right);
+        while (left < right) {
+            final int center = (left + right) >>> 1;
 
-            head = head.next;
-
-            if (partition - left > 1) {
-                final BSTIndexNode node = new BSTIndexNode();
-
-                node.left = left;
-                node.right = partition - 1;
-                node.next = head;
-                head = node;
+            if (array[center].compareTo(e) < 0) {
+                left = center + 1;
+            } else {
+                right = center;
             }
+        }
 
-            if (right - partition > 1) {
-                final BSTIndexNode node = new BSTIndexNode();
+        return left;
+    }
+
+    /**
+     * Moves the distinct elements of a sorted array to its beginning, preserving
+     * their order.
+     * 
+     * @param array the sorted values
+     * @return the number of distinct elements
+     */
+    private int distinct(E[] array) {
+        int length = 0;
 
-                node.left = partition + 1;
-                node.right = right;
-                node.next = head;
-                head = node;
+        for (int i = 0; i < array.length; i++) {
+            if (length == 0 || array[i].compareTo(array[length - 1]) != 0) {
+                array[length] = array[i];
+                length++;
             }
         }
+
+        return length;
     }
 
     /**
-     * Partitions the array. This method is used within a broader QuickSort
-     * algorithm.
+     * Partitions the array into the elements less than, equal to and greater than
+     * a pivot element. This method is used within a broader IntroSort algorithm.
      * 
      * @param array the values to sort
      * @param left  the first index to examine
      * @param right the last index to examine
-     * @return the index of the pivot element
+     * @return the index of the first element equal to the pivot element
      */
     private int partition(E[] array, int left, int right) {
-        int pivot = choosePivot(array, left, right);
+        final E pivot = array[choosePivot(array, left, right)];
 
-        swap(array, right, pivot);
+        int lower = left;
+        int current = left;
+        int upper = right;
 
-        pivot = right;
-        right--;
+        // Maintain elements less than the pivot before the lower index and elements
+        // greater than the pivot after the upper index
 
-        while (left <= right) {
-            while (array[left].compareTo(array[pivot]) < 0) {
-                left++;
-            }
+        while (current <= upper) {
+            final int comparison = array[current].compareTo(pivot);
 
-            while (right >= left && array[right].compareTo(array[pivot]) >= 0) {
-                right--;
-            }
+            if (comparison < 0) {
+                if (lower != current) {
+                    swap(array, lower, current);
+                }
+
+                lower++;
+                current++;
+            } else if (comparison > 0) {
+                // Skip elements already on the correct side before swapping
+
+                while (upper > current && array[upper].compareTo(pivot) > 0) {
+                    upper--;
+                }
+
+                swap(array, current, upper);
 
-            if (right > left) {
-                swap(array, left, right);
+                upper--;
+            } else {
+                current++;
             }
         }
 
-        swap(array, left, pivot);
+        return lower;
+    }
+
+    /**
+     * Finds the end of the run of elements equal to the pivot element that begins
+     * at the given index. This method is used within a broader IntroSort
+     * algorithm.
+     * 
+     * @param array the partitioned values
+     * @param lower the index of the first element equal to the pivot element
+     * @param right the last index to examine
+     * @return the index of the last element equal to the pivot element
+     */
+    private int skipEqual(E[] array, int lower, int right) {
+        int upper = lower;
 
-        return left;
+        while (upper < right && array[upper + 1].compareTo(array[lower]) == 0) {
+            upper++;
+        }
+
+        return upper;
     }
 
     /**
      * Selects a pivot element using the median-of-three-values strategy. This
-     * method is used within a broader QuickSort algorithm.
+     * method is used within a broader IntroSort algorithm.
      * 
      * @param array the values to sort
      * @param left  the first index to examine
@@ -1192,7 +4234,7 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
      * @return the index of the pivot element
      */
     private int choosePivot(E[] array, int left, int right) {
-        final int center = (left + right) / 2;
+        final int center = (left + right) >>> 1;
 
         if (array[right].compareTo(array[left]) < 0) {
             swap(array, left, right);
@@ -1209,6 +4251,85 @@ public class BST<E extends Comparable<E>> implements Iterable<E> {
         return center;
     }
 
+    /**
+     * Sorts a short range of an array using the InsertionSort algorithm. This
+     * method is used within a broader IntroSort algorithm.
+     * 
+     * @param array the values to sort
+     * @param left  the first index to sort
+     * @param right the last index to sort
+     */
+    private void insertionSort(E[] array, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            final E item = array[i];
+
+            int j = i - 1;
+
+            while (j >= left && array[j].compareTo(item) > 0) {
+                array[j + 1] = array[j];
+                j--;
+            }
+
+            array[j + 1] = item;
+        }
+    }
+
+    /**
+     * Sorts a range of an array using the HeapSort algorithm. This method is used
+     * within a broader IntroSort algorithm when partitioning degrades.
+     * 
+     * @param array the values to sort
+     * @param left  the first index to sort
+     * @param right the last index to sort
+     */
+    private void heapSort(E[] array, int left, int right) {
+        final int length = right - left + 1;
+
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(array, left, i, length);
+        }
+
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, left, left + i);
+            siftDown(array, left, 0, i);
+        }
+    }
+
+    /**
+     * Restores the max-heap property below the given element of a heap stored
+     * within a range of an array. This method is used within a broader HeapSort
+     * algorithm.
+     * 
+     * @param array  the values to sort
+     * @param offset the index of the root of the heap
+     * @param index  the position of the element within the heap
+     * @param length the number of elements in the heap
+     */
+    private void siftDown(E[] array, int offset, int index, int length) {
+        final E item = array[offset + index];
+
+        while (true) {
+            int child = 2 * index + 1;
+
+            if (child >= length) {
+                break;
+            }
+
+            if (child + 1 < length && array[offset + child + 1].compareTo(array[offset + child]) > 0) {
+                child++;
+            }
+
+            if (array[offset + child].compareTo(item) <= 0) {
+                break;
+            }
+
+            array[offset + index] = array[offset + child];
+            index = child;
+        }
+
+        array[offset + index] = item;
+    }
+
     /**
      * Swaps the elements at two given indices in an array.
      * 
@@ -1,15 +1,530 @@
 package project4;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Represents a mountain implemented as a binary search tree of rest stops.
  * 
  * @author Ishan Pranav
  */
 public class BSTMountain extends BST<RestStop> {
+
+    /**
+     * Summarizes the feasibility of a sub-tree of the mountain. The deepest depth
+     * reachable from the root of a sub-tree follows from its height; in addition,
+     * this class records the minimum supplies that a hiker must carry on arrival
+     * at the root of the sub-tree to survive along at least one path to its
+     * deepest rest stops. Each minimum is taken independently over all such
+     * paths, so a hiker carrying less than any one of them cannot survive the
+     * sub-tree.
+     * 
+     * @author Ishan Pranav
+     */
+    private static final class Feasibility {
+        private static final Feasibility NONE = new Feasibility(0, 0, 0);
+
+        private final int foodRations;
+        private final int rafts;
+        private final int axes;
+
+        /**
+         * Initializes a new instance of the {@link Feasibility} class.
+         * 
+         * @param foodRations the minimum number of food rations required
+         * @param rafts       the minimum number of rafts required
+         * @param axes        the minimum number of axes required
+         */
+        public Feasibility(int foodRations, int rafts, int axes) {
+            this.foodRations = foodRations;
+            this.rafts = rafts;
+            this.axes = axes;
+        }
+    }
+
+    /**
+     * Provides a resumable depth-first search that discovers viable paths through
+     * a sub-tree of the mountain one at a time using backtracking. A single
+     * working path and a single hiker are shared across the entire traversal: the
+     * supplies collected at each rest stop are returned when the hiker leaves the
+     * sub-tree rooted there, so that the search itself allocates only its O(H)
+     * stack.
+     * 
+     * @author Ishan Pranav
+     */
+    private class PathSearch {
+        private final int[] depths;
+        private final Object[] nodes;
+        private final int initialDepth;
+        private final int maxDepth;
+        private final Hiker hiker;
+        private final RestStop[] path;
+        private final SolverStats stats;
+        private final SearchEvent event = new SearchEvent();
+
+        private int index;
+        private int steps;
+        private long nodesVisited;
+        private long subtreesSkipped;
+        private long foodDeaths;
+        private long raftDeaths;
+        private long axeDeaths;
+        private int maxStackDepth;
+        private long rowsEmitted;
+
+        /**
+         * Initializes a new instance of the {@link PathSearch} class.
+         * 
+         * @param start the root of the sub-tree to traverse
+         * @param depth the depth of {@code start} within the mountain
+         * @param hiker the hiker arriving at {@code start}
+         * @param path  the working path, whose length is the height of the
+         *              mountain and whose first {@code depth} steps lead from the
+         *              summit to {@code start}
+         * @param stats the statistics to which the search is recorded when it
+         *              finishes, or {@code null}
+         */
+        public PathSearch(Node start, int depth, Hiker hiker, RestStop[] path, SolverStats stats) {
+            // Use a node array, a depth array, and one index to simulate a recursive
+            // function stack trace with a node argument and a depth argument; the buffer
+            // size must be height + 1 to accommodate both the left side and the right
+            // side pushed at the same time
+
+            final int bufferSize = path.length + 1;
+
+            depths = new int[bufferSize];
+            nodes = new Object[bufferSize];
+            initialDepth = depth;
+            maxDepth = path.length - 1;
+            this.hiker = hiker;
+            this.path = path;
+            this.stats = stats;
+
+            // The number of steps along the working path whose supplies the hiker is
+            // currently carrying
+
+            steps = depth;
+
+            if (start != null) {
+                nodes[0] = start;
+                depths[0] = depth;
+                index = 1;
+                maxStackDepth = 1;
+            }
+
+            event.begin();
+        }
+
+        /**
+         * Advances the search to the next viable path. When this method returns
+         * {@code true}, the working path contains the rest-stop steps of that path;
+         * when it returns {@code false}, the hiker and the working path have been
+         * restored to their initial states, and the counters of the search have
+         * been recorded to its statistics and to its flight recorder event.
+         * 
+         * @return {@code true} if another viable path was found; otherwise,
+         *         {@code false}
+         */
+        public boolean advance() {
+            if (stats == null) {
+                if (search()) {
+                    return true;
+                }
+
+                commit();
+
+                return false;
+            }
+
+            final long start = System.nanoTime();
+            final boolean result = search();
+
+            stats.addNanos(SolverStats.Phase.SEARCH, System.nanoTime() - start);
+
+            if (!result) {
+                stats.recordSearch(nodesVisited, subtreesSkipped, foodDeaths, raftDeaths, axeDeaths, maxStackDepth,
+                        rowsEmitted);
+                commit();
+            }
+
+            return result;
+        }
+
+        /**
+         * Ends the flight recorder event of the search and commits it if it is
+         * enabled and exceeds its threshold.
+         */
+        private void commit() {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.pathsFound = rowsEmitted;
+                event.nodesVisited = nodesVisited;
+                event.commit();
+            }
+        }
+
+        /**
+         * Continues the depth-first search until the next viable path is found.
+         * 
+         * @return {@code true} if another viable path was found; otherwise,
+         *         {@code false}
+         */
+        private boolean search() {
+            while (index > 0) {
+                index--;
+
+                final Node node = (Node) nodes[index];
+                final RestStop restStop = node.getValue();
+                final int depth = depths[index];
+
+                nodes[index] = null;
+
+                // Leave every rest stop on the working path below the parent of the
+                // current node, undoing the supply changes made there
+
+                backtrack(depth);
+
+                // Skip sub-trees that cannot produce a viable path
+
+                if (!isFeasible(node, depth, hiker, maxDepth)) {
+                    subtreesSkipped++;
+
+                    continue;
+                }
+
+                // Collect supplies and overcome obstacles
+                // Consume food if the hiker needs to keep moving
+
+                hiker.visit(restStop);
+
+                if (depth < maxDepth) {
+                    hiker.eat();
+                }
+
+                path[depth] = restStop;
+                steps = depth + 1;
+                nodesVisited++;
+
+                // Exit early if the hiker does not survive the visit to the rest stop
+
+                if (hiker.isDead()) {
+                    recordDeath();
+
+                    continue;
+                }
+
+                // Stop if the bottom of the mountain was reached successfully
+
+                if (depth == maxDepth) {
+                    rowsEmitted++;
+
+                    return true;
+                }
+
+                // Push the right and left sides (stack is a last-in, first-out
+                // collection)
+
+                final Node right = node.getRight();
+                final Node left = node.getLeft();
+
+                if (right != null) {
+                    nodes[index] = right;
+                    depths[index] = depth + 1;
+                    index++;
+                }
+
+                if (left != null) {
+                    nodes[index] = left;
+                    depths[index] = depth + 1;
+                    index++;
+                }
+
+                if (index > maxStackDepth) {
+                    maxStackDepth = index;
+                }
+            }
+
+            backtrack(initialDepth);
+
+            return false;
+        }
+
+        /**
+         * Attributes the death of the hiker to each of its supply deficits; a
+         * single death may have more than one cause.
+         */
+        private void recordDeath() {
+            if (hiker.getFoodRations() < 0) {
+                foodDeaths++;
+            }
+
+            if (hiker.getRafts() < 0) {
+                raftDeaths++;
+            }
+
+            if (hiker.getAxes() < 0) {
+                axeDeaths++;
+            }
+        }
+
+        /**
+         * Leaves rest stops along the working path, in reverse order, until the
+         * given number of steps remain.
+         * 
+         * @param target the number of steps that should remain
+         */
+        private void backtrack(int target) {
+            while (steps > target) {
+                steps--;
+
+                if (steps < maxDepth) {
+                    hiker.uneat();
+                }
+
+                hiker.unvisit(path[steps]);
+            }
+        }
+    }
+
+    /**
+     * Provides a lazy iterator over the viable paths of the mountain. Only the
+     * depth-first search stack is kept alive between calls; each path is found
+     * when it is requested.
+     * 
+     * @author Ishan Pranav
+     */
+    private class PathIterator implements Iterator<RestStop[]> {
+        private final int expectedVersion = getVersion();
+        private final RestStop[] path = new RestStop[height()];
+        private final PathSearch search;
+
+        private boolean ready;
+        private boolean hasNext;
+
+        /**
+         * Initializes a new instance of the {@link PathIterator} class.
+         * 
+         * @param stats the statistics to which the search is recorded, or
+         *              {@code null}
+         */
+        public PathIterator(SolverStats stats) {
+            search = new PathSearch(getRoot(), 0, new Hiker(), path, stats);
+        }
+
+        /**
+         * Returns {@code true} if the search has more paths.
+         * 
+         * @return {@code true} if the search has more paths
+         */
+        @Override
+        public boolean hasNext() {
+            if (!ready) {
+                if (getVersion() != expectedVersion) {
+                    throw new ConcurrentModificationException("Collection was modified during iteration.");
+                }
+
+                hasNext = search.advance();
+                ready = true;
+            }
+
+            return hasNext;
+        }
+
+        /**
+         * Returns the next path in the search. The array returned is the working path
+         * of the search, which is overwritten by subsequent calls.
+         * 
+         * @throws ConcurrentModificationException if the mountain has been modified
+         *                                         concurrently with the search
+         * @throws NoSuchElementException          if the search has no more paths
+         */
+        @Override
+        public RestStop[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Collection has no more elements.");
+            }
+
+            ready = false;
+
+            return path;
+        }
+    }
+
+    /**
+     * Provides a fork/join task that discovers all viable paths passing through a
+     * sub-tree of the mountain. Sub-trees whose node count exceeds the threshold
+     * are split into independent tasks for their left and right sides; smaller
+     * sub-trees are traversed sequentially.
+     * 
+     * @author Ishan Pranav
+     */
+    private class PathSearchTask extends RecursiveTask<ArrayMatrix<RestStop>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node node;
+        private final int depth;
+        private final Hiker hiker;
+        private final RestStop[] path;
+        private final int threshold;
+        private final SolverStats stats;
+
+        /**
+         * Initializes a new instance of the {@link PathSearchTask} class.
+         * 
+         * @param node      the root of the sub-tree to traverse
+         * @param depth     the depth of {@code node} within the mountain
+         * @param hiker     the hiker arriving at {@code node}, owned by this task
+         * @param path      the working path leading to {@code node}, owned by this
+         *                  task
+         * @param threshold the maximum number of nodes in a sub-tree traversed
+         *                  sequentially
+         * @param stats     the statistics to which the search is recorded, or
+         *                  {@code null}
+         */
+        public PathSearchTask(Node node, int depth, Hiker hiker, RestStop[] path, int threshold,
+                SolverStats stats) {
+            this.node = node;
+            this.depth = depth;
+            this.hiker = hiker;
+            this.path = path;
+            this.threshold = threshold;
+            this.stats = stats;
+        }
+
+        /**
+         * Discovers the viable paths passing through the sub-tree.
+         * 
+         * @return a matrix containing paths (rows) comprised of rest-stop steps
+         *         (columns), in the same order as the sequential traversal
+         */
+        @Override
+        protected ArrayMatrix<RestStop> compute() {
+            final int height = path.length;
+            final int maxDepth = height - 1;
+            final ArrayMatrix<RestStop> results = new ArrayMatrix<RestStop>(0, height);
+
+            if (!isFeasible(node, depth, hiker, maxDepth)) {
+                if (stats != null) {
+                    stats.recordSearch(0, 1, 0, 0, 0, 0, 0);
+                }
+            } else if (node.getCount() <= threshold) {
+                final PathSearch search = new PathSearch(node, depth, hiker, path, stats);
+
+                while (search.advance()) {
+                    results.add(path);
+                }
+            } else {
+                split(results, maxDepth);
+            }
+
+            if (stats != null) {
+                stats.recordMatrix(results);
+            }
+
+            return results;
+        }
+
+        /**
+         * Visits the root of the sub-tree and searches its left and right sides
+         * concurrently.
+         * 
+         * @param results  the matrix to which viable paths are appended
+         * @param maxDepth the depth of the base of the mountain
+         */
+        private void split(ArrayMatrix<RestStop> results, int maxDepth) {
+            final RestStop restStop = node.getValue();
+
+            hiker.visit(restStop);
+
+            if (depth < maxDepth) {
+                hiker.eat();
+            }
+
+            path[depth] = restStop;
+
+            final boolean dead = hiker.isDead();
+            final boolean base = !dead && depth == maxDepth;
+
+            if (stats != null) {
+                stats.recordSearch(1, 0,
+                        hiker.getFoodRations() < 0 ? 1 : 0,
+                        hiker.getRafts() < 0 ? 1 : 0,
+                        hiker.getAxes() < 0 ? 1 : 0,
+                        1, base ? 1 : 0);
+            }
+
+            if (dead) {
+                return;
+            }
+
+            if (base) {
+                results.add(path);
+
+                return;
+            }
+
+            // Each side receives its own copy of the hiker and the working path, since
+            // both sides proceed concurrently
+
+            final Node left = node.getLeft();
+            final Node right = node.getRight();
+            PathSearchTask rightTask = null;
+
+            if (right != null) {
+                rightTask = new PathSearchTask(right, depth + 1, new Hiker(hiker), path.clone(), threshold, stats);
+                rightTask.fork();
+            }
+
+            if (left != null) {
+                results.addAll(new PathSearchTask(left, depth + 1, hiker, path, threshold, stats).compute());
+            }
+
+            if (rightTask != null) {
+                results.addAll(rightTask.join());
+            }
+        }
+    }
+
     /** Initializes a new instance of the {@link BSTMountain} class. */
     public BSTMountain() {
     }
 
+    /**
+     * Initializes a new instance of the {@link BSTMountain} class containing the
+     * specified rest stops. The mountain has exactly the same shape as a mountain
+     * to which each rest stop is added in order, but it is built in O(NlogN) time
+     * even when the labels of the rest stops are nearly sorted.
+     * 
+     * @param restStops the rest stops, in insertion order
+     * @throws NullPointerException if the specified array is null or contains null
+     *                              elements
+     */
+    public BSTMountain(RestStop[] restStops) {
+        load(restStops);
+    }
+
+    /**
+     * Returns an immutable snapshot of this persistent mountain, on which any
+     * number of threads may search for paths while rest stops continue to be
+     * added to and removed from this mountain.
+     * 
+     * @return an immutable snapshot of this mountain
+     * @throws IllegalStateException if this mountain is not persistent
+     */
+    @Override
+    public BSTMountain snapshot() {
+        return (BSTMountain) super.snapshot();
+    }
+
     /**
      * Traverses the mountain and discovers all viable paths that bring a hiker
      * safely from its summit to its base.
@@ -18,103 +533,309 @@ public class BSTMountain extends BST<RestStop> {
      *         (columns)
      */
     public ArrayMatrix<RestStop> findPaths() {
-        // Use a node array, a hiker array, a path array, a depth array, a rest stop
-        // matrix, and one index to simulate a recursive function stack trace with a
-        // node argument, a hiker argument, a path argument, a depth argument, and a
-        // rest stop matrix return value; the buffer size must be height + 1 to
-        // accommodate both the left side and the right side pushed at the same time
+        return findPaths((SolverStats) null);
+    }
 
-        final int height = height();
-        final int maxDepth = height - 1;
-        final int bufferSize = height + 1;
-        final int[] depths = new int[bufferSize];
-        final Object[] nodes = new Object[bufferSize];
-        final Hiker[] hikers = new Hiker[bufferSize];
-        final RestStop[][] paths = new RestStop[bufferSize][];
-        final ArrayMatrix<RestStop> results = new ArrayMatrix<RestStop>(0, height);
+    /**
+     * Traverses the mountain and discovers all viable paths that bring a hiker
+     * safely from its summit to its base, recording the work performed.
+     * 
+     * @param stats the statistics to which the search is recorded, or
+     *              {@code null}
+     * @return a matrix containing paths (rows) comprised of rest-stop steps
+     *         (columns)
+     */
+    public ArrayMatrix<RestStop> findPaths(SolverStats stats) {
+        final ArrayMatrix<RestStop> results = new ArrayMatrix<RestStop>(0, height());
 
-        int index = 1;
+        findPaths(results::add, stats);
 
-        // Begin with the root node, a new hiker, and an empty path with as many steps
-        // as the height of the tree (the current working path)
+        if (stats != null) {
+            stats.recordMatrix(results);
+        }
 
-        nodes[0] = getRoot();
-        hikers[0] = new Hiker();
-        paths[0] = new RestStop[height];
+        return results;
+    }
 
-        while (index > 0) {
-            // Process the current node, path, rest stop, depth, and hiker
+    /**
+     * Traverses the mountain and passes each viable path that brings a hiker
+     * safely from its summit to its base to the given consumer as soon as it is
+     * discovered, in the same order as {@link #findPaths()}.
+     * 
+     * The array passed to the consumer is the working path of the search, which
+     * is overwritten once the consumer returns; callers that retain a path must
+     * copy it.
+     * 
+     * @param consumer the action to perform on each path
+     * @throws NullPointerException if the specified consumer is null
+     */
+    public void findPaths(Consumer<RestStop[]> consumer) {
+        findPaths(consumer, null);
+    }
 
-            index--;
+    /**
+     * Traverses the mountain and passes each viable path that brings a hiker
+     * safely from its summit to its base to the given consumer as soon as it is
+     * discovered, recording the work performed. The time spent by the consumer
+     * is not included in the search phase.
+     * 
+     * @param consumer the action to perform on each path
+     * @param stats    the statistics to which the search is recorded, or
+     *                 {@code null}
+     * @throws NullPointerException if the specified consumer is null
+     * @see #findPaths(Consumer)
+     */
+    public void findPaths(Consumer<RestStop[]> consumer, SolverStats stats) {
+        if (consumer == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: consumer.");
+        }
 
-            final Node node = (Node) nodes[index];
+        final RestStop[] path = new RestStop[height()];
+        final PathSearch search = new PathSearch(getRoot(), 0, new Hiker(), path, stats);
 
-            if (node == null) {
-                continue;
-            }
+        while (search.advance()) {
+            consumer.accept(path);
+        }
+    }
 
-            final RestStop[] path = paths[index];
-            final RestStop restStop = node.getValue();
-            final Hiker hiker = hikers[index];
+    /**
+     * Counts the viable paths that bring a hiker safely from the summit of this
+     * mountain to its base without recording them. The mountain is traversed
+     * once, and no path arrays or result matrices are created.
+     * 
+     * The result may be used to size an {@link ArrayMatrix} exactly (see
+     * {@link ArrayMatrix#ensureCapacity(int)}) before a full enumeration.
+     * 
+     * @return the number of viable paths
+     */
+    public int countPaths() {
+        return countPaths(null, null);
+    }
 
-            int depth = depths[index];
+    /**
+     * Counts the viable paths that bring a hiker safely from the summit of this
+     * mountain to its base, breaking the count down by base rest stop.
+     * 
+     * Since the mountain is a tree, every base rest stop is reached by at most
+     * one path. The breakdown is therefore the set of base rest stops that end a
+     * viable path, each of which accounts for exactly one path; these are added to
+     * the given tree.
+     * 
+     * @param bases the tree to which the base rest stops of the viable paths are
+     *              added, or {@code null} to count the paths only
+     * @return the number of viable paths
+     */
+    public int countPaths(BST<RestStop> bases) {
+        return countPaths(bases, null);
+    }
 
-            // Collect supplies and overcome obstacles
+    /**
+     * Counts the viable paths that bring a hiker safely from the summit of this
+     * mountain to its base, breaking the count down by base rest stop and
+     * recording the work performed.
+     * 
+     * @param bases the tree to which the base rest stops of the viable paths are
+     *              added, or {@code null} to count the paths only
+     * @param stats the statistics to which the search is recorded, or
+     *              {@code null}
+     * @return the number of viable paths
+     * @see #countPaths(BST)
+     */
+    public int countPaths(BST<RestStop> bases, SolverStats stats) {
+        final int height = height();
+        final RestStop[] path = new RestStop[height];
+        final PathSearch search = new PathSearch(getRoot(), 0, new Hiker(), path, stats);
 
-            hiker.visit(restStop);
+        int result = 0;
 
-            // Consume food if the hiker needs to keep moving
+        while (search.advance()) {
+            result++;
 
-            if (depth < maxDepth) {
-                hiker.eat();
+            if (bases != null) {
+                bases.add(path[height - 1]);
             }
+        }
 
-            // Exit early if the hiker does not survive the visit to the rest stop
+        return result;
+    }
 
-            if (hiker.isDead()) {
-                continue;
-            }
+    /**
+     * Returns a lazy iterator over the viable paths that bring a hiker safely from
+     * the summit of this mountain to its base, in the same order as
+     * {@link #findPaths()}. Each path is discovered when it is requested.
+     * 
+     * The array returned by {@code next()} is the working path of the search,
+     * which is overwritten by subsequent calls; callers that retain a path must
+     * copy it.
+     * 
+     * @return an iterator over the viable paths
+     */
+    public Iterator<RestStop[]> pathIterator() {
+        return new PathIterator(null);
+    }
 
-            // Exit early If the bottom of the mountain was reached successfully
+    /**
+     * Returns a lazy iterator over the viable paths that bring a hiker safely from
+     * the summit of this mountain to its base, recording the work performed.
+     * Counters are recorded once the iterator is exhausted.
+     * 
+     * @param stats the statistics to which the search is recorded, or
+     *              {@code null}
+     * @return an iterator over the viable paths
+     * @see #pathIterator()
+     */
+    public Iterator<RestStop[]> pathIterator(SolverStats stats) {
+        return new PathIterator(stats);
+    }
 
-            if (depth == maxDepth) {
-                // Include the last rest stop in the current working path if the hiker has
-                // survived thus far
+    /**
+     * Returns a sequential, lazily evaluated stream of the viable paths that bring
+     * a hiker safely from the summit of this mountain to its base, in the same
+     * order as {@link #findPaths()}.
+     * 
+     * Unlike {@link #pathIterator()}, each element of the stream is a distinct
+     * array that may be retained safely.
+     * 
+     * @return a stream of the viable paths
+     */
+    public Stream<RestStop[]> paths() {
+        final Spliterator<RestStop[]> spliterator = Spliterators.spliteratorUnknownSize(pathIterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL);
 
-                path[depth] = restStop;
+        return StreamSupport.stream(spliterator, false).map(RestStop[]::clone);
+    }
 
-                // Copy the rest-stop steps of the current working path into the results matrix
+    /**
+     * Traverses the mountain in parallel and discovers all viable paths that bring
+     * a hiker safely from its summit to its base.
+     * 
+     * Sub-trees containing more than {@code threshold} nodes are split into
+     * independent tasks executed by the given pool; the paths are returned in the
+     * same order as {@link #findPaths()}.
+     * 
+     * @param pool      the pool used to execute the search
+     * @param threshold the maximum number of nodes in a sub-tree that is traversed
+     *                  sequentially by a single task
+     * @return a matrix containing paths (rows) comprised of rest-stop steps
+     *         (columns)
+     * @throws NullPointerException     if the specified pool is null
+     * @throws IllegalArgumentException if the threshold is less than one
+     */
+    public ArrayMatrix<RestStop> findPaths(ForkJoinPool pool, int threshold) {
+        return findPaths(pool, threshold, null);
+    }
 
-                results.add(path);
+    /**
+     * Traverses the mountain in parallel and discovers all viable paths that bring
+     * a hiker safely from its summit to its base, recording the work performed.
+     * The search phase accumulates the time spent by every task.
+     * 
+     * @param pool      the pool used to execute the search
+     * @param threshold the maximum number of nodes in a sub-tree that is traversed
+     *                  sequentially by a single task
+     * @param stats     the statistics to which the search is recorded, or
+     *                  {@code null}
+     * @return a matrix containing paths (rows) comprised of rest-stop steps
+     *         (columns)
+     * @throws NullPointerException     if the specified pool is null
+     * @throws IllegalArgumentException if the threshold is less than one
+     * @see #findPaths(ForkJoinPool, int)
+     */
+    public ArrayMatrix<RestStop> findPaths(ForkJoinPool pool, int threshold, SolverStats stats) {
+        if (pool == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: pool.");
+        }
 
-                continue;
-            }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("The threshold must be greater than zero.");
+        }
 
-            // Add the current rest stop to the current working path
-            // Push the right and left sides (stack is a last-in, first-out collection)
-            // Create shallow clones of the hikers and paths to avoid interference across
-            // calls when using mutable reference types
+        final int height = height();
 
-            path[depth] = restStop;
-            depth++;
-            depths[index] = depth;
-            nodes[index] = node.getRight();
-            hikers[index] = new Hiker(hiker);
-            paths[index] = new RestStop[height];
+        if (height == 0) {
+            return new ArrayMatrix<RestStop>(0, height);
+        }
 
-            System.arraycopy(path, 0, paths[index], 0, height);
+        return pool.invoke(new PathSearchTask(getRoot(), 0, new Hiker(), new RestStop[height], threshold, stats));
+    }
 
-            index++;
-            depths[index] = depth;
-            nodes[index] = node.getLeft();
-            hikers[index] = new Hiker(hiker);
-            paths[index] = new RestStop[height];
+    /**
+     * Computes the feasibility summary of a sub-tree from the summaries of the
+     * children of its root. Only children whose sub-trees are as deep as possible
+     * contribute, since a path that ends above the deepest rest stops of the
+     * sub-tree ends above the base of the mountain as well.
+     * 
+     * @param node the root of the sub-tree to summarize
+     * @return the feasibility summary
+     */
+    @Override
+    protected Object summarize(Node node) {
+        final RestStop restStop = node.getValue();
+        final int height = node.getHeight();
 
-            System.arraycopy(path, 0, paths[index], 0, height);
+        if (height == 1) {
+            // Base rest stops do not require the hiker to eat
 
-            index++;
+            return feasibility(restStop.getFoodRations(), restStop.getRafts(), restStop.getAxes(),
+                    Feasibility.NONE);
         }
 
-        return results;
+        final Node left = node.getLeft();
+        final Node right = node.getRight();
+        final Feasibility required;
+
+        if (left == null || left.getHeight() < height - 1) {
+            required = (Feasibility) right.getSummary();
+        } else if (right == null || right.getHeight() < height - 1) {
+            required = (Feasibility) left.getSummary();
+        } else {
+            final Feasibility leftRequired = (Feasibility) left.getSummary();
+            final Feasibility rightRequired = (Feasibility) right.getSummary();
+
+            required = new Feasibility(
+                    Math.min(leftRequired.foodRations, rightRequired.foodRations),
+                    Math.min(leftRequired.rafts, rightRequired.rafts),
+                    Math.min(leftRequired.axes, rightRequired.axes));
+        }
+
+        return feasibility(restStop.getFoodRations() - 1, restStop.getRafts(), restStop.getAxes(), required);
+    }
+
+    /**
+     * Computes the supplies required on arrival at a rest stop.
+     * 
+     * @param foodRations the net food rations collected at the rest stop
+     * @param rafts       the net rafts collected at the rest stop
+     * @param axes        the net axes collected at the rest stop
+     * @param required    the supplies required on departure from the rest stop
+     * @return the supplies required on arrival at the rest stop
+     */
+    private static Feasibility feasibility(int foodRations, int rafts, int axes, Feasibility required) {
+        return new Feasibility(
+                Math.max(0, required.foodRations - foodRations),
+                Math.max(0, required.rafts - rafts),
+                Math.max(0, required.axes - axes));
+    }
+
+    /**
+     * Determines whether a sub-tree of the mountain may produce a viable path for
+     * the given hiker. This operation is O(1).
+     * 
+     * @param node     the root of the sub-tree
+     * @param depth    the depth of {@code node} within the mountain
+     * @param hiker    the hiker arriving at {@code node}
+     * @param maxDepth the depth of the base of the mountain
+     * @return {@code false} if the sub-tree does not reach the base of the
+     *         mountain, or if the hiker cannot carry enough supplies through it;
+     *         otherwise, {@code true}
+     */
+    private static boolean isFeasible(Node node, int depth, Hiker hiker, int maxDepth) {
+        if (depth + node.getHeight() - 1 < maxDepth) {
+            return false;
+        }
+
+        final Feasibility required = (Feasibility) node.getSummary();
+
+        return hiker.hasAtLeast(required.foodRations, required.rafts, required.axes);
     }
 }
@@ -0,0 +1,29 @@
+package project4;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a Java Flight Recorder event emitted when a binary search tree is
+ * constructed from an array of elements.
+ * 
+ * @author Ishan Pranav
+ */
+@Name("project4.Build")
+@Label("Build")
+@Category("Mountain Climber")
+@Description("Construction of a binary search tree")
+@StackTrace(false)
+public class BuildEvent extends Event {
+    @Label("Node Count")
+    @Description("Number of nodes in the tree")
+    int nodeCount;
+
+    @Label("Height")
+    @Description("Height of the tree")
+    int height;
+}
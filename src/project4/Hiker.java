@@ -27,11 +27,45 @@ public class Hiker {
         axes = other.axes;
     }
 
+    /**
+     * Gets the number of food rations carried by the hiker.
+     * 
+     * @return the food supplies, which are negative if the hiker has starved
+     */
+    public int getFoodRations() {
+        return foodRations;
+    }
+
+    /**
+     * Gets the number of rafts carried by the hiker.
+     * 
+     * @return the raft supplies, which are negative if the hiker has met a river
+     *         without a raft
+     */
+    public int getRafts() {
+        return rafts;
+    }
+
+    /**
+     * Gets the number of axes carried by the hiker.
+     * 
+     * @return the axe supplies, which are negative if the hiker has met a fallen
+     *         tree without an axe
+     */
+    public int getAxes() {
+        return axes;
+    }
+
     /** Consumes a single ration of food. */
     public void eat() {
         foodRations--;
     }
 
+    /** Restores a single ration of food consumed by {@link #eat()}. */
+    public void uneat() {
+        foodRations++;
+    }
+
     /**
      * Visits a rest stop and collects the supplies available there.
      * 
@@ -46,6 +80,32 @@ public class Hiker {
         axes += restStop.getAxes();
     }
 
+    /**
+     * Leaves a rest stop previously visited, returning the supplies collected there
+     * and restoring the supplies lost to its obstacles. This method undoes the
+     * effect of {@link #visit(RestStop)}.
+     * 
+     * @param restStop the rest stop to leave
+     */
+    public void unvisit(RestStop restStop) {
+        foodRations -= restStop.getFoodRations();
+        rafts -= restStop.getRafts();
+        axes -= restStop.getAxes();
+    }
+
+    /**
+     * Determines whether the hiker carries at least the given supplies.
+     * 
+     * @param foodRations the minimum number of food rations
+     * @param rafts       the minimum number of rafts
+     * @param axes        the minimum number of axes
+     * @return {@code true} if the hiker carries at least as many of each supply
+     *         as specified; otherwise, {@code false}
+     */
+    public boolean hasAtLeast(int foodRations, int rafts, int axes) {
+        return this.foodRations >= foodRations && this.rafts >= rafts && this.axes >= axes;
+    }
+
     /**
      * Determines whether the hiker has not survived an obstacle.
      * 
@@ -0,0 +1,376 @@
+package project4;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents a concurrent front-end that adds elements from any number of
+ * producer threads to a binary search tree modified by a single writer thread.
+ * 
+ * Producers offer elements to a bounded, lock-free ring buffer. Each slot of
+ * the buffer carries a sequence number: a producer claims a position by
+ * advancing the shared tail, stores its element, and then publishes the slot
+ * by advancing its sequence number, so that producers never wait on each other
+ * or on the tree. The writer thread drains every published element in the
+ * order the positions were claimed, which preserves the order of the elements
+ * offered by each producer, and adds them to the tree in batches using
+ * {@link BST#addAll(Comparable[])}. After each batch, the writer publishes an
+ * immutable snapshot of the tree, so readers never observe a partially applied
+ * batch.
+ * 
+ * @param <E> the type of elements maintained by the tree
+ * @author Ishan Pranav
+ */
+public class IngestQueue<E extends Comparable<E>> implements AutoCloseable {
+    private final BST<E> tree;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final int mask;
+    private final E[] batch;
+    private final Object barrier = new Object();
+    private final Thread writer;
+
+    private long head;
+    private volatile long applied;
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+    private volatile BST<E> published;
+    private volatile Throwable failure;
+
+    /**
+     * Initializes a new instance of the {@link IngestQueue} class and starts its
+     * writer thread. The tree is made persistent, and must not be modified by
+     * any other thread from then on.
+     * 
+     * @param tree     the tree to which elements are added
+     * @param capacity the minimum number of elements that may be waiting to be
+     *                 added at once, which is rounded up to a power of two no less
+     *                 than two
+     * @throws IllegalArgumentException if the capacity is not positive or exceeds
+     *                                  {@code 1 << 30}
+     * @throws NullPointerException     if the specified tree is null
+     */
+    public IngestQueue(BST<E> tree, int capacity) {
+        if (tree == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: tree.");
+        }
+
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Argument is out of range. Argument name: capacity.");
+        }
+
+        // A single slot could not tell a published element from a free slot in the
+        // next lap, since both would carry the same sequence number
+
+        final int length = Math.max(Integer.highestOneBit(capacity - 1) << 1, 2);
+
+        this.tree = tree;
+        slots = new AtomicReferenceArray<E>(length);
+        sequences = new AtomicLongArray(slots.length());
+        mask = slots.length() - 1;
+        batch = newArray(slots.length());
+
+        // Each slot is free for the position that maps to it in the first lap
+
+        for (int i = 0; i < slots.length(); i++) {
+            sequences.set(i, i);
+        }
+
+        tree.makePersistent();
+
+        published = tree.snapshot();
+        writer = new Thread(this::run, "IngestQueue writer");
+
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Offers an element to be added to the tree, without waiting.
+     * 
+     * @param e element to be added to the tree
+     * @return {@code true} if the element was accepted, or {@code false} if the
+     *         queue is full
+     * @throws IllegalStateException if the queue is closed, or if the writer
+     *                               thread has failed
+     * @throws NullPointerException  if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: e.");
+        }
+
+        checkOpen();
+
+        long position = tail.get();
+
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+
+            if (difference < 0) {
+                // The slot still holds an element from the previous lap
+
+                return false;
+            }
+
+            if (difference == 0 && tail.compareAndSet(position, position + 1)) {
+                slots.lazySet(index, e);
+                sequences.set(index, position + 1);
+
+                if (sleeping) {
+                    LockSupport.unpark(writer);
+                }
+
+                return true;
+            }
+
+            position = tail.get();
+        }
+    }
+
+    /**
+     * Adds an element to the tree, waiting for space in the queue if it is full.
+     * The producer waits only for the writer thread to drain the queue, never
+     * for the tree itself.
+     * 
+     * @param e element to be added to the tree
+     * @throws IllegalStateException if the queue is closed, or if the writer
+     *                               thread has failed
+     * @throws InterruptedException  if the current thread is interrupted while
+     *                               waiting
+     * @throws NullPointerException  if the specified element is null
+     */
+    public void put(E e) throws InterruptedException {
+        int spins = 0;
+
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            spins++;
+
+            if (spins < 64) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, 1000);
+            }
+        }
+    }
+
+    /**
+     * Waits until every element accepted before this call has been added to the
+     * tree and is visible through {@link #snapshot()}.
+     * 
+     * @throws IllegalStateException if the writer thread has failed
+     * @throws InterruptedException  if the current thread is interrupted while
+     *                               waiting
+     */
+    public void flush() throws InterruptedException {
+        final long target = tail.get();
+
+        LockSupport.unpark(writer);
+
+        synchronized (barrier) {
+            while (applied < target) {
+                checkFailure();
+                barrier.wait();
+            }
+        }
+    }
+
+    /**
+     * Gets the most recently published snapshot of the tree. The snapshot
+     * reflects every batch applied so far and may be read by any number of
+     * threads without locks.
+     * 
+     * This operation should be O(1).
+     * 
+     * @return an immutable snapshot of the tree
+     */
+    public BST<E> snapshot() {
+        return published;
+    }
+
+    /**
+     * Stops accepting elements, waits for the writer thread to add every element
+     * already accepted, and then stops the writer thread. Producers must have
+     * stopped offering elements before the queue is closed. If the current thread
+     * is interrupted while waiting, it keeps waiting, and its interrupt status is
+     * restored before this method returns.
+     * 
+     * @throws IllegalStateException if the writer thread has failed
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        LockSupport.unpark(writer);
+
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                writer.join();
+
+                break;
+            } catch (InterruptedException interruptedException) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        checkFailure();
+    }
+
+    /**
+     * Drains the queue and applies each batch to the tree until the queue is
+     * closed and empty. This method runs on the writer thread. If the writer
+     * fails, the queue is closed and every waiting thread is released.
+     */
+    private void run() {
+        try {
+            while (true) {
+                int count = 0;
+
+                while (count < batch.length && poll(count)) {
+                    count++;
+                }
+
+                if (count > 0) {
+                    apply(count);
+
+                    continue;
+                }
+
+                if (closed && head == tail.get()) {
+                    return;
+                }
+
+                // Announce the intent to sleep before checking the queue again, so
+                // that a producer publishing in between is sure to wake the writer
+
+                sleeping = true;
+
+                if (!isReady() && !(closed && head == tail.get())) {
+                    LockSupport.park(this);
+                }
+
+                sleeping = false;
+            }
+        } catch (Throwable throwable) {
+            failure = throwable;
+        } finally {
+            closed = true;
+
+            synchronized (barrier) {
+                barrier.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Determines whether the element at the head of the queue has been
+     * published.
+     * 
+     * @return {@code true} if the next element is ready; otherwise, {@code false}
+     */
+    private boolean isReady() {
+        return sequences.get((int) head & mask) == head + 1;
+    }
+
+    /**
+     * Moves the element at the head of the queue into the batch, if it has been
+     * published, and frees its slot for the next lap.
+     * 
+     * @param index the index in the batch at which to store the element
+     * @return {@code true} if an element was moved; otherwise, {@code false}
+     */
+    private boolean poll(int index) {
+        if (!isReady()) {
+            return false;
+        }
+
+        final int slot = (int) head & mask;
+
+        batch[index] = slots.get(slot);
+
+        slots.lazySet(slot, null);
+        sequences.lazySet(slot, head + slots.length());
+
+        head++;
+
+        return true;
+    }
+
+    /**
+     * Adds a batch of elements to the tree, publishes a new snapshot of the tree,
+     * and releases any threads waiting for the batch.
+     * 
+     * @param count the number of elements in the batch
+     */
+    private void apply(int count) {
+        final E[] elements = newArray(count);
+
+        System.arraycopy(batch, 0, elements, 0, count);
+
+        for (int i = 0; i < count; i++) {
+            batch[i] = null;
+        }
+
+        tree.addAll(elements);
+
+        published = tree.snapshot();
+
+        synchronized (barrier) {
+            applied = head;
+            barrier.notifyAll();
+        }
+    }
+
+    /**
+     * Creates an array for elements of the tree.
+     * 
+     * @param length the length of the array
+     * @return the array
+     */
+    @SuppressWarnings("unchecked")
+    private E[] newArray(int length) {
+        return (E[]) new Comparable<?>[length];
+    }
+
+    /**
+     * Ensures that the queue accepts elements.
+     * 
+     * @throws IllegalStateException if the queue is closed, or if the writer
+     *                               thread has failed
+     */
+    private void checkOpen() {
+        checkFailure();
+
+        if (closed) {
+            throw new IllegalStateException("Cannot add elements to a closed queue.");
+        }
+    }
+
+    /**
+     * Ensures that the writer thread has not failed.
+     * 
+     * @throws IllegalStateException if the writer thread has failed
+     */
+    private void checkFailure() {
+        final Throwable throwable = failure;
+
+        if (throwable != null) {
+            throw new IllegalStateException("The writer thread failed to add an element.", throwable);
+        }
+    }
+}
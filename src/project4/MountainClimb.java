@@ -1,11 +1,26 @@
 package project4;
 
-import java.io.FileInputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+
 /**
  * Represents the mountain climber application, responsible for parsing and
  * validating the command line arguments, reading and parsing the
@@ -23,21 +38,94 @@ public final class MountainClimb {
     /**
      * Provides the main entry point for the application.
      * 
-     * @param args the command-line arguments to the program; the first element is a
-     *             path to the input test file containing instructions to be
-     *             processed, and ny other elements are ignored.
+     * @param args the command-line arguments to the program: a path to the input
+     *             test file containing instructions to be processed, together
+     *             with, in any position, {@code --count} to print only the number
+     *             of viable paths and {@code --stats} to collect solver
+     *             statistics, which are exposed through JMX while the program runs
+     *             and printed to the standard error stream when it finishes.
      */
     public static void main(String[] args) {
-        if (args.length == 0) {
+        boolean count = false;
+        SolverStats stats = null;
+        String path = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--count")) {
+                count = true;
+            } else if (args[i].equals("--stats")) {
+                stats = new SolverStats();
+            } else if (path == null) {
+                path = args[i];
+            } else {
+                System.err.println(
+                        "The program accepts only one path to an input test file as a command-line argument. Argument name: args.");
+
+                return;
+            }
+        }
+
+        if (path == null) {
             System.err.println(
                     "The program requires a path to an input test file as a command-line argument. Argument name: args.");
+
+            return;
         }
 
-        try (FileInputStream fileInputStream = new FileInputStream(args[0])) {
-            main(fileInputStream, System.out);
+        if (stats != null) {
+            register(stats);
+        }
+
+        try {
+            final BSTMountain mountain = read(Paths.get(path), stats);
+
+            if (count) {
+                System.out.println(mountain.countPaths(null, stats));
+            } else {
+                // Write directly to the standard output channel, bypassing the locking
+                // and per-call encoding of the print stream
+
+                final PathWriter writer = new PathWriter(
+                        new FileOutputStream(FileDescriptor.out).getChannel(), stdoutCharset());
+
+                write(mountain, writer, stats);
+            }
         } catch (IOException ioException) {
             System.err.println("An error occured while attempting to parse the test file.");
         }
+
+        if (stats != null) {
+            System.err.println(stats);
+        }
+    }
+
+    /**
+     * Reads a mountain from a file. Regular files are memory-mapped and parsed by
+     * the byte-level parser, which accepts the same input as the scanner whenever
+     * it supports the default charset. Other files, such as pipes and devices,
+     * cannot be mapped and are parsed from a stream instead, as are files that
+     * fail to be mapped.
+     * 
+     * @param path  the path to the file
+     * @param stats the statistics to which the parse and build phases are
+     *              recorded, or {@code null}
+     * @return the mountain
+     * @throws IOException if an I/O error occurs
+     */
+    private static BSTMountain read(Path path, SolverStats stats) throws IOException {
+        final Charset charset = Charset.defaultCharset();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (MountainParser.isSupported(charset) && Files.isRegularFile(path) && channel.size() > 0) {
+                try {
+                    return MountainParser.parse(channel, charset, stats);
+                } catch (IOException | UnsupportedOperationException exception) {
+                    channel.position(0);
+                }
+            }
+
+            return parse(Channels.newInputStream(channel), stats);
+        }
     }
 
     /**
@@ -47,7 +135,188 @@ public final class MountainClimb {
      * @param outputStream the output stream to which results are printed
      */
     public static void main(InputStream inputStream, PrintStream outputStream) {
-        final BSTMountain mountain = new BSTMountain();
+        print(parse(inputStream), outputStream);
+    }
+
+    /**
+     * Prints every viable path of a mountain, one path per line, as soon as it is
+     * discovered.
+     * 
+     * @param mountain     the mountain
+     * @param outputStream the output stream to which results are printed
+     */
+    static void print(BSTMountain mountain, PrintStream outputStream) {
+        // Print each viable path as soon as it is discovered, where the columns
+        // represent steps along that path
+
+        final PrintEvent event = new PrintEvent();
+        final long[] paths = new long[1];
+
+        event.begin();
+        mountain.findPaths(path -> {
+            for (RestStop restStop : path) {
+                outputStream.print(restStop);
+                outputStream.print(' ');
+            }
+
+            outputStream.println();
+
+            paths[0]++;
+        });
+        commit(event, paths[0]);
+    }
+
+    /**
+     * Provides a platform-agnostic, stream-based entry point for the application
+     * that prints the number of viable paths without enumerating them.
+     * 
+     * @param inputStream  the input stream containing instructions to be processed
+     * @param outputStream the output stream to which the result is printed
+     */
+    public static void count(InputStream inputStream, PrintStream outputStream) {
+        outputStream.println(parse(inputStream).countPaths());
+    }
+
+    /**
+     * Writes every viable path of a mountain, one path per line, as soon as it is
+     * discovered, and then flushes the writer.
+     * 
+     * @param mountain the mountain
+     * @param writer   the writer to which results are written
+     * @throws IOException if an I/O error occurs
+     */
+    static void write(BSTMountain mountain, PathWriter writer) throws IOException {
+        write(mountain, writer, null);
+    }
+
+    /**
+     * Writes every viable path of a mountain, one path per line, as soon as it is
+     * discovered, and then flushes the writer, recording the search and output
+     * phases.
+     * 
+     * @param mountain the mountain
+     * @param writer   the writer to which results are written
+     * @param stats    the statistics to which the search and output phases are
+     *                 recorded, or {@code null}
+     * @throws IOException if an I/O error occurs
+     */
+    static void write(BSTMountain mountain, PathWriter writer, SolverStats stats) throws IOException {
+        final Iterator<RestStop[]> iterator = mountain.pathIterator(stats);
+        final PrintEvent event = new PrintEvent();
+
+        long paths = 0;
+
+        event.begin();
+
+        if (stats == null) {
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+
+                paths++;
+            }
+
+            writer.flush();
+            commit(event, paths);
+
+            return;
+        }
+
+        // The iterator records the time spent searching; the remainder is output
+
+        final long start = System.nanoTime();
+        final long searchNanos = stats.getNanos(SolverStats.Phase.SEARCH);
+
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+
+            paths++;
+        }
+
+        writer.flush();
+        commit(event, paths);
+
+        final long elapsed = System.nanoTime() - start;
+
+        stats.addNanos(SolverStats.Phase.OUTPUT,
+                elapsed - (stats.getNanos(SolverStats.Phase.SEARCH) - searchNanos));
+    }
+
+    /**
+     * Ends a print event and commits it if it is enabled and exceeds its
+     * threshold.
+     * 
+     * @param event the event
+     * @param paths the number of paths printed
+     */
+    private static void commit(PrintEvent event, long paths) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.paths = paths;
+            event.commit();
+        }
+    }
+
+    /**
+     * Registers solver statistics with the platform MBean server so that they may
+     * be observed through JMX while the program runs.
+     * 
+     * @param stats the statistics to register
+     */
+    private static void register(SolverStats stats) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats,
+                    new ObjectName("project4:type=SolverStats"));
+        } catch (JMException jmException) {
+            System.err.println("An error occured while attempting to register the solver statistics.");
+        }
+    }
+
+    /**
+     * Gets the charset used by the standard output stream.
+     * 
+     * @return the charset of the standard output stream
+     */
+    private static Charset stdoutCharset() {
+        String name = System.getProperty("stdout.encoding");
+
+        if (name == null) {
+            name = System.getProperty("sun.stdout.encoding");
+        }
+
+        if (name == null || !Charset.isSupported(name)) {
+            return Charset.defaultCharset();
+        }
+
+        return Charset.forName(name);
+    }
+
+    /**
+     * Parses a mountain from its textual representation. Each line describes one
+     * rest stop: its label, followed by its supplies and obstacles.
+     * 
+     * @param inputStream the input stream containing instructions to be processed
+     * @return the mountain
+     */
+    static BSTMountain parse(InputStream inputStream) {
+        return parse(inputStream, null);
+    }
+
+    /**
+     * Parses a mountain from its textual representation, recording the time
+     * spent tokenizing the input and inserting rest stops into the mountain.
+     * 
+     * @param inputStream the input stream containing instructions to be processed
+     * @param stats       the statistics to which the parse and build phases are
+     *                    recorded, or {@code null}
+     * @return the mountain
+     */
+    static BSTMountain parse(InputStream inputStream, SolverStats stats) {
+        final long start = System.nanoTime();
+        final ParseEvent parseEvent = new ParseEvent();
+        final List<RestStop> restStops = new ArrayList<RestStop>();
+
+        parseEvent.begin();
 
         // Parse file line-by-line using a streaming scanner
 
@@ -98,22 +367,30 @@ public final class MountainClimb {
                     index++;
                 }
 
-                mountain.add(new RestStop(segments[0], foodRations, rafts, axes));
+                restStops.add(new RestStop(segments[0], foodRations, rafts, axes));
             }
         }
 
-        final ArrayMatrix<RestStop> paths = mountain.findPaths();
+        parseEvent.end();
 
-        // Iterate over the matrix of viable paths, where the rows represent paths and
-        // the columns represent steps along those paths
+        // The scanner does not report how many bytes it consumed
 
-        for (int row = 0; row < paths.getRows(); row++) {
-            for (int column = 0; column < paths.getColumns(); column++) {
-                outputStream.print(paths.get(row, column));
-                outputStream.print(' ');
-            }
+        if (parseEvent.shouldCommit()) {
+            parseEvent.bytes = -1;
+            parseEvent.lines = restStops.size();
+            parseEvent.commit();
+        }
 
-            outputStream.println();
+        // Build the mountain from the whole sequence of rest stops at once
+
+        final long buildStart = System.nanoTime();
+        final BSTMountain mountain = new BSTMountain(restStops.toArray(new RestStop[restStops.size()]));
+
+        if (stats != null) {
+            stats.addNanos(SolverStats.Phase.BUILD, System.nanoTime() - buildStart);
+            stats.addNanos(SolverStats.Phase.PARSE, buildStart - start);
         }
+
+        return mountain;
     }
 }
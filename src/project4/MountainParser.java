@@ -0,0 +1,406 @@
+package project4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a byte-level parser that builds a mountain directly from a UTF-8
+ * or US-ASCII encoded input file.
+ * 
+ * The file is memory-mapped in large windows and tokenized without decoding
+ * it into characters. Supplies and obstacles are recognized by comparing
+ * bytes in place, so the only object allocated per line is the label of the
+ * rest stop (together with the rest stop itself). The parser accepts exactly
+ * the same input as {@link MountainClimb#parse(java.io.InputStream)} when the
+ * default charset is the charset of the file: lines end with {@code \n},
+ * {@code \r\n}, {@code \r} or, in UTF-8, {@code U+0085}, {@code U+2028} or
+ * {@code U+2029}, and segments are separated by single spaces.
+ * 
+ * @author Ishan Pranav
+ */
+public final class MountainParser {
+    private static final int WINDOW_SIZE = 1 << 26;
+    private static final byte SPACE = ' ';
+    private static final byte[] FOOD = { 'f', 'o', 'o', 'd' };
+    private static final byte[] RAFT = { 'r', 'a', 'f', 't' };
+    private static final byte[] AXE = { 'a', 'x', 'e' };
+    private static final byte[] RIVER = { 'r', 'i', 'v', 'e', 'r' };
+    private static final byte[] FALLEN = { 'f', 'a', 'l', 'l', 'e', 'n' };
+    private static final byte[] TREE = { 't', 'r', 'e', 'e' };
+
+    private final Charset charset;
+    private final boolean unicode;
+
+    private byte[] label = new byte[64];
+    private RestStop[] restStops = new RestStop[64];
+    private int lines;
+
+    /**
+     * Initializes a new instance of the {@link MountainParser} class.
+     * 
+     * @param charset the charset of the input
+     */
+    private MountainParser(Charset charset) {
+        this.charset = charset;
+        unicode = charset.equals(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Determines whether the parser supports input in the given charset.
+     * 
+     * @param charset the charset
+     * @return {@code true} if the charset is UTF-8 or US-ASCII; otherwise,
+     *         {@code false}
+     */
+    public static boolean isSupported(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Parses a UTF-8-encoded mountain from a file channel, beginning at its
+     * current position.
+     * 
+     * @param channel the channel from which the mountain is read
+     * @return the mountain
+     * @throws IOException          if an I/O error occurs
+     * @throws NullPointerException if the specified channel is null
+     */
+    public static BSTMountain parse(FileChannel channel) throws IOException {
+        return parse(channel, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a mountain from a file channel, beginning at its current position.
+     * 
+     * @param channel the channel from which the mountain is read
+     * @param charset the charset of the input
+     * @return the mountain
+     * @throws IOException              if an I/O error occurs
+     * @throws NullPointerException     if the specified channel or charset is null
+     * @throws IllegalArgumentException if the charset is not supported
+     */
+    public static BSTMountain parse(FileChannel channel, Charset charset) throws IOException {
+        return parse(channel, charset, null);
+    }
+
+    /**
+     * Parses a mountain from a file channel, beginning at its current position,
+     * recording the time spent tokenizing the input and inserting rest stops into
+     * the mountain.
+     * 
+     * @param channel the channel from which the mountain is read
+     * @param charset the charset of the input
+     * @param stats   the statistics to which the parse and build phases are
+     *                recorded, or {@code null}
+     * @return the mountain
+     * @throws IOException              if an I/O error occurs
+     * @throws NullPointerException     if the specified channel or charset is null
+     * @throws IllegalArgumentException if the charset is not supported
+     */
+    public static BSTMountain parse(FileChannel channel, Charset charset, SolverStats stats) throws IOException {
+        if (channel == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: channel.");
+        }
+
+        if (charset == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: charset.");
+        }
+
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("The charset is not supported. Argument name: charset.");
+        }
+
+        final long start = System.nanoTime();
+        final ParseEvent parseEvent = new ParseEvent();
+
+        parseEvent.begin();
+
+        final MountainParser parser = new MountainParser(charset);
+        final long size = channel.size();
+        final long initialPosition = channel.position();
+
+        long position = initialPosition;
+        int windowSize = WINDOW_SIZE;
+
+        // Map the file one window at a time; a line that crosses the end of a window
+        // is parsed again from its beginning in the next window, which is enlarged if
+        // it cannot contain even a single line
+
+        while (position < size) {
+            final long remaining = size - position;
+            final boolean last = remaining <= windowSize;
+            final int length = last ? (int) remaining : windowSize;
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            final int consumed = parser.parse(buffer, last);
+
+            if (consumed == 0 && !last) {
+                windowSize = (int) Math.min(Integer.MAX_VALUE, (long) windowSize * 2);
+            }
+
+            position += consumed;
+        }
+
+        channel.position(size);
+        parseEvent.end();
+
+        if (parseEvent.shouldCommit()) {
+            parseEvent.bytes = Math.max(0, size - initialPosition);
+            parseEvent.lines = parser.lines;
+            parseEvent.commit();
+        }
+
+        // Build the mountain from the whole sequence of rest stops at once
+
+        final long buildStart = System.nanoTime();
+        final RestStop[] restStops = new RestStop[parser.lines];
+
+        System.arraycopy(parser.restStops, 0, restStops, 0, parser.lines);
+
+        final BSTMountain mountain = new BSTMountain(restStops);
+
+        if (stats != null) {
+            stats.addNanos(SolverStats.Phase.BUILD, System.nanoTime() - buildStart);
+            stats.addNanos(SolverStats.Phase.PARSE, buildStart - start);
+        }
+
+        return mountain;
+    }
+
+    /**
+     * Parses as many complete lines as possible from a buffer.
+     * 
+     * @param buffer the buffer containing the input
+     * @param last   {@code true} if the buffer ends with the end of the input;
+     *               otherwise, {@code false}
+     * @return the number of bytes consumed
+     */
+    private int parse(ByteBuffer buffer, boolean last) {
+        final int limit = buffer.limit();
+
+        int start = 0;
+        int index = 0;
+
+        while (index < limit) {
+            final int b = buffer.get(index) & 0xff;
+            final int terminator;
+
+            // Recognize \n, \r\n, \r, U+0085 (C2 85), U+2028 (E2 80 A8) and U+2029
+            // (E2 80 A9); stop early if a terminator might continue past the buffer
+
+            if (b == '\n') {
+                terminator = 1;
+            } else if (b == '\r') {
+                if (index + 1 < limit) {
+                    terminator = buffer.get(index + 1) == '\n' ? 2 : 1;
+                } else if (last) {
+                    terminator = 1;
+                } else {
+                    return start;
+                }
+            } else if (unicode && (b == 0xc2 || b == 0xe2)) {
+                final int length = b == 0xc2 ? 2 : 3;
+
+                if (index + length > limit) {
+                    if (!last) {
+                        return start;
+                    }
+
+                    terminator = 0;
+                } else if (b == 0xc2) {
+                    terminator = (buffer.get(index + 1) & 0xff) == 0x85 ? 2 : 0;
+                } else {
+                    final int b1 = buffer.get(index + 1) & 0xff;
+                    final int b2 = buffer.get(index + 2) & 0xff;
+
+                    terminator = b1 == 0x80 && (b2 == 0xa8 || b2 == 0xa9) ? 3 : 0;
+                }
+            } else {
+                terminator = 0;
+            }
+
+            if (terminator == 0) {
+                index++;
+
+                continue;
+            }
+
+            parseLine(buffer, start, index);
+
+            index += terminator;
+            start = index;
+        }
+
+        if (!last) {
+            return start;
+        }
+
+        if (start < limit) {
+            parseLine(buffer, start, limit);
+        }
+
+        return limit;
+    }
+
+    /**
+     * Parses a single line describing a rest stop and appends the rest stop to
+     * the sequence from which the mountain is built.
+     * 
+     * @param buffer the buffer containing the input
+     * @param start  the index of the first byte of the line
+     * @param end    the index following the last byte of the line, excluding its
+     *               terminator
+     * @throws IllegalArgumentException if the line is non-empty and contains only
+     *                                  spaces, which leaves the rest stop without
+     *                                  a label
+     */
+    private void parseLine(ByteBuffer buffer, int start, int end) {
+        final int labelEnd = indexOfSpace(buffer, start, end);
+
+        if (labelEnd == start && start < end && indexOfNonSpace(buffer, start, end) == end) {
+            throw new IllegalArgumentException("The rest stop must have a label.");
+        }
+
+        int foodRations = 0;
+        int rafts = 0;
+        int axes = 0;
+        boolean obstacles = false;
+        int index = labelEnd;
+
+        // Parse supplies until the first obstacle, then parse obstacles and use
+        // lookahead for two-word obstacles
+        // Negative rafts represent rivers; negative axes represent fallen trees
+
+        while (index < end) {
+            final int segmentStart = index + 1;
+            final int segmentEnd = indexOfSpace(buffer, segmentStart, end);
+
+            index = segmentEnd;
+
+            if (!obstacles) {
+                if (equals(buffer, segmentStart, segmentEnd, FOOD)) {
+                    foodRations++;
+
+                    continue;
+                } else if (equals(buffer, segmentStart, segmentEnd, RAFT)) {
+                    rafts++;
+
+                    continue;
+                } else if (equals(buffer, segmentStart, segmentEnd, AXE)) {
+                    axes++;
+
+                    continue;
+                } else if (equals(buffer, segmentStart, segmentEnd, RIVER)
+                        || equals(buffer, segmentStart, segmentEnd, FALLEN)) {
+                    obstacles = true;
+                } else {
+                    continue;
+                }
+            }
+
+            if (equals(buffer, segmentStart, segmentEnd, RIVER)) {
+                rafts--;
+            } else if (segmentEnd < end && equals(buffer, segmentStart, segmentEnd, FALLEN)) {
+                final int nextEnd = indexOfSpace(buffer, segmentEnd + 1, end);
+
+                if (equals(buffer, segmentEnd + 1, nextEnd, TREE)) {
+                    axes--;
+                    index = nextEnd;
+                }
+            }
+        }
+
+        if (lines == restStops.length) {
+            final RestStop[] newRestStops = new RestStop[restStops.length * 2];
+
+            System.arraycopy(restStops, 0, newRestStops, 0, lines);
+
+            restStops = newRestStops;
+        }
+
+        restStops[lines] = new RestStop(decode(buffer, start, labelEnd), foodRations, rafts, axes);
+        lines++;
+    }
+
+    /**
+     * Decodes a range of bytes as a string.
+     * 
+     * @param buffer the buffer containing the input
+     * @param start  the index of the first byte
+     * @param end    the index following the last byte
+     * @return the decoded string
+     */
+    private String decode(ByteBuffer buffer, int start, int end) {
+        final int length = end - start;
+
+        if (length > label.length) {
+            label = new byte[Math.max(length, label.length * 2)];
+        }
+
+        for (int i = 0; i < length; i++) {
+            label[i] = buffer.get(start + i);
+        }
+
+        return new String(label, 0, length, charset);
+    }
+
+    /**
+     * Finds the first space within a range of bytes.
+     * 
+     * @param buffer the buffer containing the input
+     * @param start  the index of the first byte to examine
+     * @param end    the index following the last byte to examine
+     * @return the index of the first space, or {@code end} if there is none
+     */
+    private static int indexOfSpace(ByteBuffer buffer, int start, int end) {
+        while (start < end && buffer.get(start) != SPACE) {
+            start++;
+        }
+
+        return start;
+    }
+
+    /**
+     * Finds the first byte other than a space within a range of bytes.
+     * 
+     * @param buffer the buffer containing the input
+     * @param start  the index of the first byte to examine
+     * @param end    the index following the last byte to examine
+     * @return the index of the first byte other than a space, or {@code end} if
+     *         there is none
+     */
+    private static int indexOfNonSpace(ByteBuffer buffer, int start, int end) {
+        while (start < end && buffer.get(start) == SPACE) {
+            start++;
+        }
+
+        return start;
+    }
+
+    /**
+     * Determines whether a range of bytes is equal to the given keyword.
+     * 
+     * @param buffer  the buffer containing the input
+     * @param start   the index of the first byte to compare
+     * @param end     the index following the last byte to compare
+     * @param keyword the keyword
+     * @return {@code true} if the range and the keyword contain the same bytes;
+     *         otherwise, {@code false}
+     */
+    private static boolean equals(ByteBuffer buffer, int start, int end, byte[] keyword) {
+        if (end - start != keyword.length) {
+            return false;
+        }
+
+        for (int i = 0; i < keyword.length; i++) {
+            if (buffer.get(start + i) != keyword[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
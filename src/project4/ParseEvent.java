@@ -0,0 +1,31 @@
+package project4;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a Java Flight Recorder event emitted when the mountain climber
+ * parses its input.
+ * 
+ * @author Ishan Pranav
+ */
+@Name("project4.Parse")
+@Label("Parse")
+@Category("Mountain Climber")
+@Description("Parsing of a mountain climber input file")
+@StackTrace(false)
+public class ParseEvent extends Event {
+    @Label("Bytes")
+    @Description("Number of bytes read, or -1 if unknown")
+    @DataAmount
+    long bytes;
+
+    @Label("Lines")
+    @Description("Number of lines parsed")
+    long lines;
+}
@@ -0,0 +1,146 @@
+package project4;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Represents a buffered writer that encodes paths down a mountain directly
+ * into bytes. Each path is written on its own line as the labels of its rest
+ * stops, each followed by a single space, which is the same format as printing
+ * every rest stop and separator to a {@link java.io.PrintStream}.
+ * 
+ * Paths discovered by a depth-first search share long prefixes, and every rest
+ * stop appears in a single run of consecutive paths. The writer therefore
+ * remembers the encoded label of the rest stop at each step of the previous
+ * path, so that each label is encoded only once. Rows are written into a
+ * large reusable buffer that is flushed to the underlying channel when full.
+ * 
+ * @author Ishan Pranav
+ */
+public class PathWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final WritableByteChannel channel;
+    private final Charset charset;
+    private final ByteBuffer buffer;
+    private final byte[] separator;
+    private final byte[] lineSeparator;
+
+    private RestStop[] previous = new RestStop[0];
+    private byte[][] labels = new byte[0][];
+
+    /**
+     * Initializes a new instance of the {@link PathWriter} class.
+     * 
+     * @param channel the channel to which paths are written
+     * @param charset the charset used to encode labels and separators
+     * @throws NullPointerException if the specified channel or charset is null
+     */
+    public PathWriter(WritableByteChannel channel, Charset charset) {
+        if (channel == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: channel.");
+        }
+
+        if (charset == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: charset.");
+        }
+
+        this.channel = channel;
+        this.charset = charset;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        separator = " ".getBytes(charset);
+        lineSeparator = System.lineSeparator().getBytes(charset);
+    }
+
+    /**
+     * Writes a path on its own line.
+     * 
+     * @param path the rest-stop steps of the path
+     * @throws IOException          if an I/O error occurs
+     * @throws NullPointerException if the specified path is null
+     */
+    public void write(RestStop[] path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("Argument cannot be null. Argument name: path.");
+        }
+
+        if (path.length != previous.length) {
+            previous = new RestStop[path.length];
+            labels = new byte[path.length][];
+        }
+
+        for (int i = 0; i < path.length; i++) {
+            final RestStop restStop = path[i];
+
+            if (previous[i] != restStop) {
+                previous[i] = restStop;
+                labels[i] = String.valueOf(restStop).getBytes(charset);
+            }
+
+            put(labels[i]);
+            put(separator);
+        }
+
+        put(lineSeparator);
+    }
+
+    /**
+     * Writes the contents of the buffer to the underlying channel.
+     * 
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Flushes the buffer and closes the underlying channel.
+     * 
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Appends bytes to the buffer, flushing it as needed.
+     * 
+     * @param bytes the bytes to append
+     * @throws IOException if an I/O error occurs
+     */
+    private void put(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            flush();
+
+            // Bypass the buffer for values larger than its capacity
+
+            if (bytes.length > buffer.capacity()) {
+                final ByteBuffer wrapper = ByteBuffer.wrap(bytes);
+
+                while (wrapper.hasRemaining()) {
+                    channel.write(wrapper);
+                }
+
+                return;
+            }
+        }
+
+        buffer.put(bytes);
+    }
+}
@@ -0,0 +1,26 @@
+package project4;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a Java Flight Recorder event emitted when the mountain climber
+ * prints its results. Paths are printed while they are discovered, so the
+ * duration includes the time spent searching.
+ * 
+ * @author Ishan Pranav
+ */
+@Name("project4.Print")
+@Label("Print")
+@Category("Mountain Climber")
+@Description("Printing of viable paths down a mountain")
+@StackTrace(false)
+public class PrintEvent extends Event {
+    @Label("Paths")
+    @Description("Number of paths printed")
+    long paths;
+}
@@ -0,0 +1,31 @@
+package project4;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a Java Flight Recorder event emitted when a path search over a
+ * mountain, or over one sub-tree of a parallel search, runs to completion. For
+ * streaming searches, the duration includes the time spent by the consumer of
+ * the paths.
+ * 
+ * @author Ishan Pranav
+ */
+@Name("project4.Search")
+@Label("Search")
+@Category("Mountain Climber")
+@Description("Search for viable paths down a mountain")
+@StackTrace(false)
+public class SearchEvent extends Event {
+    @Label("Paths Found")
+    @Description("Number of viable paths found")
+    long pathsFound;
+
+    @Label("Nodes Visited")
+    @Description("Number of rest stops visited by the hiker")
+    long nodesVisited;
+}
@@ -0,0 +1,223 @@
+package project4;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects opt-in statistics about the work performed by the mountain climber
+ * while parsing, building, searching and writing.
+ * 
+ * Searches accumulate their counters locally and publish them here once,
+ * when they finish, so statistics cost almost nothing while a search is
+ * running and nothing at all when no statistics object is supplied. All
+ * counters are thread-safe, so a single instance may be shared by parallel
+ * searches and read concurrently through JMX.
+ * 
+ * @author Ishan Pranav
+ */
+public class SolverStats implements SolverStatsMBean {
+
+    /**
+     * Specifies a phase of the mountain climber application.
+     * 
+     * @author Ishan Pranav
+     */
+    public enum Phase {
+        /** Tokenizing the input. */
+        PARSE,
+
+        /** Inserting rest stops into the mountain. */
+        BUILD,
+
+        /** Searching for viable paths. */
+        SEARCH,
+
+        /** Writing viable paths. */
+        OUTPUT
+    }
+
+    private final AtomicLong nodesVisited = new AtomicLong();
+    private final AtomicLong subtreesSkipped = new AtomicLong();
+    private final AtomicLong foodDeaths = new AtomicLong();
+    private final AtomicLong raftDeaths = new AtomicLong();
+    private final AtomicLong axeDeaths = new AtomicLong();
+    private final AtomicLong maxStackDepth = new AtomicLong();
+    private final AtomicLong rowsEmitted = new AtomicLong();
+    private final AtomicLong matrixGrowths = new AtomicLong();
+    private final AtomicLong[] phaseNanos = new AtomicLong[Phase.values().length];
+
+    /** Initializes a new instance of the {@link SolverStats} class. */
+    public SolverStats() {
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new AtomicLong();
+        }
+    }
+
+    /** Gets the number of rest stops visited by the hiker. */
+    @Override
+    public long getNodesVisited() {
+        return nodesVisited.get();
+    }
+
+    /** Gets the number of sub-trees skipped for lacking a viable path. */
+    @Override
+    public long getSubtreesSkipped() {
+        return subtreesSkipped.get();
+    }
+
+    /** Gets the number of hikers that died without enough food. */
+    @Override
+    public long getFoodDeaths() {
+        return foodDeaths.get();
+    }
+
+    /** Gets the number of hikers that died crossing a river without a raft. */
+    @Override
+    public long getRaftDeaths() {
+        return raftDeaths.get();
+    }
+
+    /** Gets the number of hikers that died at a fallen tree without an axe. */
+    @Override
+    public long getAxeDeaths() {
+        return axeDeaths.get();
+    }
+
+    /** Gets the maximum number of entries on the depth-first search stack. */
+    @Override
+    public long getMaxStackDepth() {
+        return maxStackDepth.get();
+    }
+
+    /** Gets the number of viable paths emitted. */
+    @Override
+    public long getRowsEmitted() {
+        return rowsEmitted.get();
+    }
+
+    /** Gets the number of times a result matrix reallocated its buffer. */
+    @Override
+    public long getMatrixGrowths() {
+        return matrixGrowths.get();
+    }
+
+    /** Gets the time spent tokenizing the input, in nanoseconds. */
+    @Override
+    public long getParseNanos() {
+        return getNanos(Phase.PARSE);
+    }
+
+    /** Gets the time spent inserting rest stops, in nanoseconds. */
+    @Override
+    public long getBuildNanos() {
+        return getNanos(Phase.BUILD);
+    }
+
+    /** Gets the time spent searching for viable paths, in nanoseconds. */
+    @Override
+    public long getSearchNanos() {
+        return getNanos(Phase.SEARCH);
+    }
+
+    /** Gets the time spent writing viable paths, in nanoseconds. */
+    @Override
+    public long getOutputNanos() {
+        return getNanos(Phase.OUTPUT);
+    }
+
+    /**
+     * Gets the time spent in a phase.
+     * 
+     * @param phase the phase
+     * @return the elapsed time of the phase, in nanoseconds
+     */
+    public long getNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()].get();
+    }
+
+    /**
+     * Adds elapsed time to a phase.
+     * 
+     * @param phase the phase
+     * @param nanos the elapsed time, in nanoseconds
+     */
+    public void addNanos(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()].addAndGet(nanos);
+    }
+
+    /**
+     * Records the counters accumulated by a single search.
+     * 
+     * @param nodesVisited    the number of rest stops visited
+     * @param subtreesSkipped the number of sub-trees skipped
+     * @param foodDeaths      the number of deaths caused by a food deficit
+     * @param raftDeaths      the number of deaths caused by a raft deficit
+     * @param axeDeaths       the number of deaths caused by an axe deficit
+     * @param maxStackDepth   the maximum number of entries on the search stack
+     * @param rowsEmitted     the number of viable paths emitted
+     */
+    public void recordSearch(long nodesVisited, long subtreesSkipped, long foodDeaths, long raftDeaths,
+            long axeDeaths, long maxStackDepth, long rowsEmitted) {
+        this.nodesVisited.addAndGet(nodesVisited);
+        this.subtreesSkipped.addAndGet(subtreesSkipped);
+        this.foodDeaths.addAndGet(foodDeaths);
+        this.raftDeaths.addAndGet(raftDeaths);
+        this.axeDeaths.addAndGet(axeDeaths);
+        this.maxStackDepth.accumulateAndGet(maxStackDepth, Math::max);
+        this.rowsEmitted.addAndGet(rowsEmitted);
+    }
+
+    /**
+     * Records the growth events of a result matrix.
+     * 
+     * @param matrix the matrix
+     */
+    public void recordMatrix(ArrayMatrix<?> matrix) {
+        matrixGrowths.addAndGet(matrix.getGrowths());
+    }
+
+    /** Resets every statistic to zero. */
+    @Override
+    public void reset() {
+        nodesVisited.set(0);
+        subtreesSkipped.set(0);
+        foodDeaths.set(0);
+        raftDeaths.set(0);
+        axeDeaths.set(0);
+        maxStackDepth.set(0);
+        rowsEmitted.set(0);
+        matrixGrowths.set(0);
+
+        for (AtomicLong nanos : phaseNanos) {
+            nanos.set(0);
+        }
+    }
+
+    /**
+     * Returns a string representation of these statistics, one statistic per
+     * line.
+     * 
+     * @return a string representation of these statistics
+     */
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder();
+
+        result.append("nodes visited: ").append(getNodesVisited()).append('\n')
+                .append("subtrees skipped: ").append(getSubtreesSkipped()).append('\n')
+                .append("food deaths: ").append(getFoodDeaths()).append('\n')
+                .append("raft deaths: ").append(getRaftDeaths()).append('\n')
+                .append("axe deaths: ").append(getAxeDeaths()).append('\n')
+                .append("max stack depth: ").append(getMaxStackDepth()).append('\n')
+                .append("rows emitted: ").append(getRowsEmitted()).append('\n')
+                .append("matrix growths: ").append(getMatrixGrowths());
+
+        for (Phase phase : Phase.values()) {
+            result.append('\n')
+                    .append(phase.name().toLowerCase())
+                    .append(" ms: ")
+                    .append(getNanos(phase) / 1000000.0);
+        }
+
+        return result.toString();
+    }
+}
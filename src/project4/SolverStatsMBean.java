@@ -0,0 +1,98 @@
+package project4;
+
+/**
+ * Defines the management interface through which {@link SolverStats} are
+ * exposed as a JMX MBean.
+ * 
+ * @author Ishan Pranav
+ */
+public interface SolverStatsMBean {
+
+    /**
+     * Gets the number of rest stops visited by the hiker.
+     * 
+     * @return the number of nodes visited
+     */
+    long getNodesVisited();
+
+    /**
+     * Gets the number of sub-trees skipped because they could not produce a
+     * viable path.
+     * 
+     * @return the number of sub-trees skipped
+     */
+    long getSubtreesSkipped();
+
+    /**
+     * Gets the number of hikers that died without enough food.
+     * 
+     * @return the number of deaths caused by a food deficit
+     */
+    long getFoodDeaths();
+
+    /**
+     * Gets the number of hikers that died crossing a river without a raft.
+     * 
+     * @return the number of deaths caused by a raft deficit
+     */
+    long getRaftDeaths();
+
+    /**
+     * Gets the number of hikers that died at a fallen tree without an axe.
+     * 
+     * @return the number of deaths caused by an axe deficit
+     */
+    long getAxeDeaths();
+
+    /**
+     * Gets the maximum number of entries on the depth-first search stack.
+     * 
+     * @return the maximum stack depth
+     */
+    long getMaxStackDepth();
+
+    /**
+     * Gets the number of viable paths emitted.
+     * 
+     * @return the number of rows emitted
+     */
+    long getRowsEmitted();
+
+    /**
+     * Gets the number of times a result matrix reallocated its buffer.
+     * 
+     * @return the number of matrix growth events
+     */
+    long getMatrixGrowths();
+
+    /**
+     * Gets the time spent tokenizing the input.
+     * 
+     * @return the elapsed time of the parse phase, in nanoseconds
+     */
+    long getParseNanos();
+
+    /**
+     * Gets the time spent inserting rest stops into the mountain.
+     * 
+     * @return the elapsed time of the build phase, in nanoseconds
+     */
+    long getBuildNanos();
+
+    /**
+     * Gets the time spent searching for viable paths.
+     * 
+     * @return the elapsed time of the search phase, in nanoseconds
+     */
+    long getSearchNanos();
+
+    /**
+     * Gets the time spent writing viable paths.
+     * 
+     * @return the elapsed time of the output phase, in nanoseconds
+     */
+    long getOutputNanos();
+
+    /** Resets every statistic to zero. */
+    void reset();
+}